@@ -18,11 +18,27 @@ CREATE TABLE ship
     speed    DOUBLE      NULL,
     crewSize INT(4)      NULL,
     rating   DOUBLE      NULL,
-    PRIMARY KEY (id)
+    version  BIGINT(20)  NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    KEY ship_speed_id (speed, id),
+    KEY ship_prod_date_id (prodDate, id),
+    KEY ship_rating_id (rating, id)
 )
     ENGINE = InnoDB
     DEFAULT CHARACTER SET = utf8;
 
+DROP TABLE IF EXISTS ship_modification;
+
+CREATE TABLE ship_modification
+(
+    id            INT        NOT NULL,
+    modifications BIGINT(20) NOT NULL,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB;
+
+INSERT INTO ship_modification (id, modifications) VALUES (1, 0);
+
 insert into ship(name, planet, shipType, prodDate, isUsed, speed, crewSize, rating)
 values ('Orion III', 'Mars', 'MERCHANT', '2995-01-01', true, 0.82, 617, 1.31)
      , ('Daedalus', 'Jupiter', 'MERCHANT', '3001-01-01', true, 0.94, 1619, 1.98)
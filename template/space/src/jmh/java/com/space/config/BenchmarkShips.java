@@ -0,0 +1,38 @@
+package com.space.config;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Valid ships drawn from a fixed seed, so every run of a benchmark works on the same data.
+ */
+public final class BenchmarkShips {
+    private static final String[] PLANETS = {"Mercury", "Venus", "Earth", "Mars", "Jupiter", "Saturn", "Uranus", "Neptune"};
+
+    private BenchmarkShips() {
+    }
+
+    /**
+     * Returns {@code count} ships without ids, produced in the years 2800-3019 (UTC).
+     */
+    public static List<Ship> random(int count, long seed) {
+        Random random = new Random(seed);
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        List<Ship> ships = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            calendar.clear();
+            calendar.set(2800 + random.nextInt(220), random.nextInt(12), 1 + random.nextInt(28));
+            double speed = (1 + random.nextInt(99)) / 100.0;
+            ships.add(new Ship(null, "Ship " + i, PLANETS[random.nextInt(PLANETS.length)],
+                    ShipType.values()[random.nextInt(ShipType.values().length)], calendar.getTime(),
+                    random.nextBoolean(), speed, 1 + random.nextInt(9999), Math.round(speed * 800) / 100.0, 0));
+        }
+        return ships;
+    }
+}
@@ -0,0 +1,97 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The root context of the application on an in-memory H2 database in MySQL mode, created empty from
+ * {@code jmh-schema.sql}, so the benchmarks run without a MySQL server.
+ */
+@Configuration
+@EnableTransactionManagement
+@ComponentScan({"com.space.service", "com.space.repository"})
+@EnableJpaRepositories(basePackages = "com.space.repository")
+@PropertySource("classpath:jmh.properties")
+public class EmbeddedDataSourceConfig {
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        em.setDataSource(dataSource());
+        em.setPackagesToScan("com.space.model");
+        em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "none");
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        em.setJpaProperties(properties);
+        return em;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource(PooledDataSources.config(environment, "jmh"));
+        new ResourceDatabasePopulator(new ClassPathResource("jmh-schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipQueryExecutor() {
+        return Executors.newFixedThreadPool(2);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipImportExecutor() {
+        return Executors.newCachedThreadPool();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipRatingExecutor() {
+        return Executors.newSingleThreadExecutor();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService shipStatsScheduler() {
+        return Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+        return new JpaTransactionManager(emf);
+    }
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+}
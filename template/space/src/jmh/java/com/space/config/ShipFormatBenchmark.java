@@ -0,0 +1,74 @@
+package com.space.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.space.model.Ship;
+import com.space.model.ShipView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a list page of {@code size} {@link ShipView}s and decodes a batch of as many {@link Ship}s in each
+ * format {@link WebConfig} negotiates. The setup of each trial prints the encoded bytes per ship.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Duser.timezone=UTC"})
+public class ShipFormatBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader batchReader;
+    private List<ShipView> views;
+    private byte[] encodedBatch;
+
+    @Setup
+    public void setup() throws Exception {
+        WebConfig webConfig = new WebConfig();
+        objectMapper = "json".equals(format) ? webConfig.objectMapper()
+                : "cbor".equals(format) ? webConfig.cborObjectMapper() : webConfig.smileObjectMapper();
+        batchReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Ship.class));
+        List<Ship> ships = BenchmarkShips.random(size, 42);
+        views = new ArrayList<>(size);
+        long id = 1;
+        for (Ship ship : ships) {
+            ship.setId(id++);
+            views.add(new ShipView(ship.getId(), ship.getName(), ship.getPlanet(), ship.getShipType(),
+                    ship.getProdDate().getTime(), ship.isUsed(), ship.getSpeed(), ship.getCrewSize(), ship.getRating()));
+        }
+        encodedBatch = objectMapper.writeValueAsBytes(ships);
+        System.out.printf(Locale.ROOT, "%n%s: %.1f bytes per ship%n", format,
+                (double) objectMapper.writeValueAsBytes(views).length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public List<Ship> decode() throws Exception {
+        return batchReader.readValue(encodedBatch);
+    }
+}
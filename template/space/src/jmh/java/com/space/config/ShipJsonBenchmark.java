@@ -0,0 +1,62 @@
+package com.space.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.model.Ship;
+import com.space.model.ShipView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a response of {@code size} ships with the mapper of {@link WebConfig}, as entities and as
+ * the {@link ShipView}s the read endpoints return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Duser.timezone=UTC"})
+public class ShipJsonBenchmark {
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Ship> ships;
+    private List<ShipView> views;
+
+    @Setup
+    public void setup() {
+        objectMapper = new WebConfig().objectMapper();
+        ships = BenchmarkShips.random(size, 42);
+        views = new ArrayList<>(size);
+        long id = 1;
+        for (Ship ship : ships) {
+            ship.setId(id++);
+            views.add(new ShipView(ship.getId(), ship.getName(), ship.getPlanet(), ship.getShipType(),
+                    ship.getProdDate().getTime(), ship.isUsed(), ship.getSpeed(), ship.getCrewSize(), ship.getRating()));
+        }
+    }
+
+    @Benchmark
+    public byte[] ships() throws Exception {
+        return objectMapper.writeValueAsBytes(ships);
+    }
+
+    @Benchmark
+    public byte[] views() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+}
@@ -0,0 +1,173 @@
+package com.space.repository;
+
+import com.space.config.BenchmarkShips;
+import com.space.config.EmbeddedDataSourceConfig;
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.service.ShipFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * The list query of {@code GET /rest/ships}: building it from a filter through {@link ShipQueryPlans} and,
+ * for comparison, through the per-request criteria specifications they replaced (neither query is run),
+ * then running it and its count on an in-memory H2 database of 10,000 ships. Each call takes the next of
+ * 512 random filters and the orders in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Duser.timezone=UTC"})
+public class ShipQueryBenchmark {
+    private static final int SHIPS = 10_000;
+    private static final int FILTERS = 512;
+    private static final ShipOrder[] ORDERS = ShipOrder.values();
+
+    private AnnotationConfigApplicationContext context;
+    private EntityManager entityManager;
+    private ShipJdbcRepository shipJdbcRepository;
+    private ShipQueryPlans plans;
+    private ShipFilter[] filters;
+    private int next;
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(EmbeddedDataSourceConfig.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        shipJdbcRepository = context.getBean(ShipJdbcRepository.class);
+        shipJdbcRepository.insertAll(BenchmarkShips.random(SHIPS, 42));
+        plans = new ShipQueryPlans();
+        filters = randomFilters(new Random(42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Object[] plan() {
+        int request = next++;
+        ShipFilter filter = filters[request & (FILTERS - 1)];
+        String sql = plans.select(ShipQueryPlans.shape(filter, null), ORDERS[request % ORDERS.length]);
+        List<Object> arguments = ShipQueryPlans.arguments(filter, null);
+        arguments.add(20);
+        arguments.add(0L);
+        return new Object[]{sql, arguments.toArray()};
+    }
+
+    /**
+     * The list query as it was built before the plans, one specification per filter.
+     */
+    @Benchmark
+    public TypedQuery<Ship> criteria() {
+        int request = next++;
+        ShipFilter filter = filters[request & (FILTERS - 1)];
+        Specification<Ship> specification = like("name", filter.getName())
+                .and(like("planet", filter.getPlanet()))
+                .and(equal("shipType", filter.getShipType()))
+                .and(between("prodDate", filter.getAfter() == null ? null : new Date(filter.getAfter()),
+                        filter.getBefore() == null ? null : new Date(filter.getBefore())))
+                .and(equal("isUsed", filter.getIsUsed()))
+                .and(between("speed", filter.getMinSpeed(), filter.getMaxSpeed()))
+                .and(between("crewSize", filter.getMinCrewSize(), filter.getMaxCrewSize()))
+                .and(between("rating", filter.getMinRating(), filter.getMaxRating()));
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = criteriaBuilder.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(Sort.by(ORDERS[request % ORDERS.length].getFieldName()), root, criteriaBuilder));
+        return entityManager.createQuery(query).setFirstResult(0).setMaxResults(20);
+    }
+
+    @Benchmark
+    public List<ShipView> findSlice() {
+        int request = next++;
+        return shipJdbcRepository.findSlice(filters[request & (FILTERS - 1)], ORDERS[request % ORDERS.length],
+                null, 0, 20);
+    }
+
+    @Benchmark
+    public long count() {
+        return shipJdbcRepository.count(filters[next++ & (FILTERS - 1)]);
+    }
+
+    private static Specification<Ship> like(String field, String value) {
+        return (root, query, criteriaBuilder) -> value == null ? null :
+                criteriaBuilder.like(root.get(field), "%" + value + "%");
+    }
+
+    private static Specification<Ship> equal(String field, Object value) {
+        return (root, query, criteriaBuilder) -> value == null ? null : criteriaBuilder.equal(root.get(field), value);
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Ship> between(String field, T min, T max) {
+        return (root, query, criteriaBuilder) -> {
+            if (min == null && max == null) {
+                return null;
+            }
+            if (min == null) {
+                return criteriaBuilder.lessThanOrEqualTo(root.get(field), max);
+            }
+            if (max == null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get(field), min);
+            }
+            return criteriaBuilder.between(root.get(field), min, max);
+        };
+    }
+
+    private static ShipFilter[] randomFilters(Random random) {
+        ShipFilter[] filters = new ShipFilter[FILTERS];
+        for (int i = 0; i < FILTERS; i++) {
+            ShipFilter filter = new ShipFilter();
+            filter.setName(random.nextInt(4) == 0 ? "1" : null);
+            filter.setPlanet(random.nextInt(4) == 0 ? "a" : null);
+            filter.setShipType(random.nextInt(3) == 0 ? ShipType.values()[random.nextInt(3)] : null);
+            filter.setAfter(random.nextInt(4) == 0 ? 26192246400000L : null);
+            filter.setBefore(random.nextInt(4) == 0 ? 33103209600000L : null);
+            filter.setIsUsed(random.nextInt(3) == 0 ? random.nextBoolean() : null);
+            filter.setMinSpeed(random.nextInt(4) == 0 ? 0.1 : null);
+            filter.setMaxSpeed(random.nextInt(4) == 0 ? 0.9 : null);
+            filter.setMinCrewSize(random.nextInt(4) == 0 ? 10 : null);
+            filter.setMaxCrewSize(random.nextInt(4) == 0 ? 5000 : null);
+            filter.setMinRating(random.nextInt(4) == 0 ? 0.5 : null);
+            filter.setMaxRating(random.nextInt(4) == 0 ? 3.0 : null);
+            filters[i] = filter;
+        }
+        return filters;
+    }
+}
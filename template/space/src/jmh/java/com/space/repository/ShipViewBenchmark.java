@@ -0,0 +1,85 @@
+package com.space.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.BenchmarkShips;
+import com.space.config.EmbeddedDataSourceConfig;
+import com.space.config.WebConfig;
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.service.ShipFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A list request served from managed {@link Ship} entities inside a transaction, as the read endpoints used
+ * to be, against the {@link com.space.model.ShipView} projection they use now. Both read a page of 20 of
+ * the 40 ships on the in-memory H2 database and serialize it with the application's mapper; the gc
+ * profiler of the {@code jmh} profile reports the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Duser.timezone=UTC"})
+public class ShipViewBenchmark {
+    private static final int SHIPS = 40;
+    private static final int PAGE_SIZE = 20;
+
+    private AnnotationConfigApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private ShipJdbcRepository shipJdbcRepository;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws Exception {
+        context = new AnnotationConfigApplicationContext(EmbeddedDataSourceConfig.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        shipJdbcRepository = context.getBean(ShipJdbcRepository.class);
+        shipJdbcRepository.insertAll(BenchmarkShips.random(SHIPS, 42));
+        objectMapper = new WebConfig().objectMapper();
+        if (!Arrays.equals(entities(), views())) {
+            throw new IllegalStateException("Entity and view responses differ");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(transaction.execute(status ->
+                entityManager.createQuery("select s from Ship s order by s.id", Ship.class)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList()));
+    }
+
+    @Benchmark
+    public byte[] views() throws Exception {
+        return objectMapper.writeValueAsBytes(
+                shipJdbcRepository.findSlice(new ShipFilter(), ShipOrder.ID, null, 0, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,58 @@
+package com.space.service;
+
+import com.space.config.BenchmarkShips;
+import com.space.model.Ship;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-ship validation and rating rules run on every create, update and imported line. Each call takes
+ * the next of 1024 ships, so the date checks see varying input. Run with the {@code gc} profiler, the
+ * {@code gc.alloc.rate.norm} of every benchmark is expected to be about 0 bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Duser.timezone=UTC"})
+public class ShipValidatorBenchmark {
+    private static final int SHIPS = 1024;
+
+    private Ship[] ships;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ships = BenchmarkShips.random(SHIPS, 42).toArray(new Ship[0]);
+    }
+
+    private Ship next() {
+        return ships[next++ & (SHIPS - 1)];
+    }
+
+    @Benchmark
+    public double getRating() {
+        return ShipValidator.getRating(next());
+    }
+
+    @Benchmark
+    public boolean isParamTrue() {
+        return ShipValidator.isParamTrue(next());
+    }
+
+    @Benchmark
+    public boolean checkProdDate() {
+        return ShipValidator.checkProdDate(next().getProdDate());
+    }
+}
@@ -0,0 +1,108 @@
+package com.space.service.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A substring search through {@link TrigramIndex} against the row-by-row check that {@code LIKE '%x%'}
+ * performs, on {@code size} synthetic ship names, plus building the index. Each search takes the next of
+ * 256 patterns cut from the names. Larger tables need more heap, e.g.
+ * {@code -Djmh.include=TrigramIndexBenchmark} with {@code -p size=10000000 -jvmArgsAppend -Xmx4g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TrigramIndexBenchmark {
+    private static final String[] PARTS = {"orion", "eagle", "daedalus", "falcon", "nostromo", "serenity",
+            "prometheus", "voyager", "rocinante", "galactica", "excelsior", "defiant", "reliant", "hyperion",
+            "icarus", "pegasus", "kestrel", "corsair", "vortex", "nebula", "comet", "quasar", "zephyr", "titan"};
+    private static final String[] SUFFIXES = {"", " i", " ii", " iii", " iv", " v", " mk2", " prime", " x"};
+    private static final int PATTERNS = 256;
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private String[] keys;
+    private String[] patterns;
+    private TrigramIndex index;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = PARTS[random.nextInt(PARTS.length)] + " " + PARTS[random.nextInt(PARTS.length)]
+                    + SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + random.nextInt(10_000);
+        }
+        patterns = new String[PATTERNS];
+        for (int i = 0; i < PATTERNS; i++) {
+            String key = keys[random.nextInt(size)];
+            int length = 3 + random.nextInt(6);
+            int from = random.nextInt(key.length() - length + 1);
+            patterns[i] = key.substring(from, from + length);
+        }
+        index = build();
+        for (String pattern : patterns) {
+            if (scan(pattern) != lookup(pattern)) {
+                throw new IllegalStateException("Index and scan disagree on '" + pattern + "'");
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TrigramIndex build() {
+        TrigramIndex index = new TrigramIndex();
+        for (int slot = 0; slot < size; slot++) {
+            index.add(slot, keys[slot]);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public int scan() {
+        return scan(patterns[next++ & (PATTERNS - 1)]);
+    }
+
+    @Benchmark
+    public int index() {
+        return lookup(patterns[next++ & (PATTERNS - 1)]);
+    }
+
+    private int scan(String pattern) {
+        int hits = 0;
+        for (String key : keys) {
+            if (key.contains(pattern)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private int lookup(String pattern) {
+        int hits = 0;
+        for (int slot : index.candidates(pattern)) {
+            if (keys[slot].contains(pattern)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,60 @@
+package com.space.loadtest;
+
+import com.space.config.MyWebAppInit;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.SpringServletContainerInitializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+/**
+ * The application, booted through its own {@link MyWebAppInit} as the WAR is, on an embedded Tomcat and an
+ * in-memory H2 database in MySQL mode. The {@code db.*} system properties take precedence over
+ * {@code application.properties}, which is how the application is pointed at H2.
+ */
+final class EmbeddedServer implements AutoCloseable {
+    private static final String DB_URL = "jdbc:h2:mem:cosmoport;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final Tomcat tomcat;
+
+    private EmbeddedServer(Tomcat tomcat) {
+        this.tomcat = tomcat;
+    }
+
+    static EmbeddedServer start(int threads) throws IOException, LifecycleException {
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", DB_URL);
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("db.pool.maximum-pool-size", String.valueOf(Math.max(10, threads / 4)));
+        new ResourceDatabasePopulator(new ClassPathResource("loadtest-schema.sql"))
+                .execute(new DriverManagerDataSource(DB_URL, "sa", ""));
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("cosmoport-tomcat").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("maxThreads", String.valueOf(threads));
+        Context context = tomcat.addContext("", new File("src/main/webapp").getAbsolutePath());
+        context.addServletContainerInitializer(new SpringServletContainerInitializer(),
+                Collections.singleton(MyWebAppInit.class));
+        tomcat.start();
+        return new EmbeddedServer(tomcat);
+    }
+
+    String getBaseUrl() {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort();
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
@@ -0,0 +1,103 @@
+package com.space.loadtest;
+
+import com.space.model.ShipType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Synthetic ships with skewed, fleet-like distributions, drawn from a seed so a run can be repeated:
+ * <ul>
+ * <li>planets follow a long tail led by Earth and Mars;</li>
+ * <li>half of the ships are merchants, 30% transports and 20% military;</li>
+ * <li>production years cluster near 3019 (a half-normal with a 60 year spread) and older ships are more
+ * often used;</li>
+ * <li>speeds are normal around 0.55 and crew sizes log-normal around 300, clamped to the allowed ranges.</li>
+ * </ul>
+ * {@link #main(String[])} writes {@code N} ships as NDJSON for {@code POST /rest/ships/import}.
+ */
+public final class FleetGenerator {
+    private static final String[] PLANETS = {"Earth", "Mars", "Jupiter", "Saturn", "Venus", "Titan", "Europa",
+            "Mercury", "Neptune", "Uranus", "Ganymede", "Pluto", "Kepler-22b", "Proxima b"};
+    private static final int[] PLANET_WEIGHTS = {22, 16, 10, 9, 8, 4, 4, 6, 6, 5, 3, 3, 2, 2};
+    private static final String[] NAMES = {"Orion", "Daedalus", "Icarus", "Hermes", "Odyssey", "Excalibur",
+            "Explorer", "Hunter", "Eagle", "Falcon", "Nomad", "Pioneer", "Voyager", "Serenity", "Nostromo"};
+    private static final String[] NUMERALS = {"I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X"};
+
+    private final Random random;
+    private final int planetWeightTotal;
+
+    public FleetGenerator(long seed) {
+        this.random = new Random(seed);
+        int total = 0;
+        for (int weight : PLANET_WEIGHTS) {
+            total += weight;
+        }
+        this.planetWeightTotal = total;
+    }
+
+    /**
+     * Returns the next ship as the JSON object {@code POST /rest/ships} and the import accept.
+     */
+    public synchronized String nextShipJson() {
+        String name = NAMES[random.nextInt(NAMES.length)] + " " + NUMERALS[random.nextInt(NUMERALS.length)];
+        int age = (int) Math.min(219, Math.abs(random.nextGaussian()) * 60);
+        LocalDate prodDate = LocalDate.ofYearDay(3019 - age, 1 + random.nextInt(365));
+        boolean isUsed = random.nextDouble() < 0.2 + 0.6 * age / 219;
+        double speed = clamp(Math.round((0.55 + random.nextGaussian() * 0.18) * 100) / 100.0, 0.01, 0.99);
+        int crewSize = (int) clamp(Math.round(Math.exp(Math.log(300) + random.nextGaussian() * 1.3)), 1, 9999);
+        return String.format(Locale.ROOT,
+                "{\"name\":\"%s\",\"planet\":\"%s\",\"shipType\":\"%s\",\"prodDate\":%d,\"isUsed\":%b,"
+                        + "\"speed\":%.2f,\"crewSize\":%d}",
+                name, nextPlanet(), nextShipType(), prodDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(),
+                isUsed, speed, crewSize);
+    }
+
+    public synchronized String nextPlanet() {
+        int pick = random.nextInt(planetWeightTotal);
+        for (int i = 0; i < PLANETS.length; i++) {
+            pick -= PLANET_WEIGHTS[i];
+            if (pick < 0) {
+                return PLANETS[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    public synchronized ShipType nextShipType() {
+        double pick = random.nextDouble();
+        return pick < 0.5 ? ShipType.MERCHANT : pick < 0.8 ? ShipType.TRANSPORT : ShipType.MILITARY;
+    }
+
+    /**
+     * Writes {@code count} ships as NDJSON, one per line.
+     */
+    public void write(int count, Writer writer) throws IOException {
+        for (int i = 0; i < count; i++) {
+            writer.write(nextShipJson());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * {@code FleetGenerator <count> [seed]} writes the ships to standard output.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        new FleetGenerator(seed).write(count, writer);
+    }
+}
@@ -0,0 +1,60 @@
+package com.space.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Latencies of one endpoint, kept in full so the percentiles are exact. Server errors and failed connections
+ * count as errors; 4xx responses, such as a ship deleted by a concurrent request, and 503s shed by a full
+ * bulkhead count as rejected.
+ */
+final class LatencyRecorder {
+    private final String endpoint;
+    private long[] nanos = new long[1024];
+    private int size;
+    private long rejected;
+    private long errors;
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long latencyNanos, int status) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+        if (status < 0 || (status >= 500 && status != 503)) {
+            errors++;
+        } else if (status >= 400) {
+            rejected++;
+        }
+    }
+
+    synchronized void reset() {
+        size = 0;
+        rejected = 0;
+        errors = 0;
+    }
+
+    static String header() {
+        return String.format(Locale.ROOT, "%-8s %9s %9s %8s %8s %8s %8s %8s %8s %8s",
+                "endpoint", "requests", "req/s", "rejected", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    synchronized String report(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "%-8s %9d %9.1f %8d %8d %8.2f %8.2f %8.2f %8.2f %8.2f",
+                endpoint, size, size / seconds, rejected, errors, percentile(sorted, 0.5), percentile(sorted, 0.9),
+                percentile(sorted, 0.99), percentile(sorted, 0.999), percentile(sorted, 1));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
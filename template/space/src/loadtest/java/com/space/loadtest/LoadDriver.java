@@ -0,0 +1,204 @@
+package com.space.loadtest;
+
+import com.space.controller.ShipOrder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An open-model load driver: requests arrive as a Poisson process at a fixed rate whatever the response
+ * times, and each latency is measured from the moment its request was due, so a stalled server shows up as
+ * queueing in the percentiles instead of as a slower arrival rate.
+ * <p>
+ * Each arrival picks an operation by the weights of the mix. {@code get}, {@code update} and {@code delete}
+ * target ids known to exist; {@code create} adds to them and {@code delete} takes its id out before sending.
+ */
+final class LoadDriver {
+    static final String[] OPERATIONS = {"list", "count", "get", "create", "update", "delete"};
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final ShipOrder[] ORDERS = ShipOrder.values();
+
+    private final String baseUrl;
+    private final int[] weights;
+    private final int weightTotal;
+    private final FleetGenerator generator;
+    private final ShipIds ids;
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+
+    LoadDriver(String baseUrl, Map<String, Integer> mix, FleetGenerator generator, ShipIds ids) {
+        this.baseUrl = baseUrl;
+        this.generator = generator;
+        this.ids = ids;
+        this.weights = new int[OPERATIONS.length];
+        int total = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            weights[i] = mix.getOrDefault(OPERATIONS[i], 0);
+            total += weights[i];
+            recorders.put(OPERATIONS[i], new LatencyRecorder(OPERATIONS[i]));
+        }
+        this.weightTotal = total;
+    }
+
+    /**
+     * Sends requests at {@code rate} per second for {@code seconds} from {@code threads} workers, then waits
+     * for the ones still in flight. Returns the recorders of this run, reset at its start.
+     */
+    Map<String, LatencyRecorder> run(double rate, int seconds, int threads, long seed) throws InterruptedException {
+        recorders.values().forEach(LatencyRecorder::reset);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Random arrivals = new Random(seed);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long due = start;
+        while (true) {
+            due += (long) (-Math.log(1 - arrivals.nextDouble()) / rate * 1e9);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String operation = pick(arrivals.nextInt(weightTotal));
+            long intended = due;
+            workers.execute(() -> {
+                int status = execute(operation);
+                recorders.get(operation).record(System.nanoTime() - intended, status);
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        return recorders;
+    }
+
+    private String pick(int value) {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return OPERATIONS[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Returns the HTTP status, or -1 when the request failed.
+     */
+    private int execute(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            switch (operation) {
+                case "list":
+                    return request("GET", "/rest/ships?" + filter(random) + "&order=" + ORDERS[random.nextInt(ORDERS.length)]
+                            + "&pageNumber=" + random.nextInt(5) + "&pageSize=" + (5 + random.nextInt(16)), null).status;
+                case "count":
+                    return request("GET", "/rest/ships/count?" + filter(random), null).status;
+                case "get": {
+                    long id = ids.random();
+                    return id < 0 ? 404 : request("GET", "/rest/ships/" + id, null).status;
+                }
+                case "create": {
+                    Response response = request("POST", "/rest/ships", generator.nextShipJson());
+                    Matcher matcher = ID.matcher(response.body);
+                    if (response.status == 200 && matcher.find()) {
+                        ids.add(Long.parseLong(matcher.group(1)));
+                    }
+                    return response.status;
+                }
+                case "update": {
+                    long id = ids.random();
+                    return id < 0 ? 404 : request("POST", "/rest/ships/" + id, String.format(Locale.ROOT,
+                            "{\"speed\":%.2f,\"crewSize\":%d}", (1 + random.nextInt(99)) / 100.0,
+                            1 + random.nextInt(9999))).status;
+                }
+                case "delete": {
+                    long id = ids.take();
+                    return id < 0 ? 404 : request("DELETE", "/rest/ships/" + id, null).status;
+                }
+                default:
+                    throw new IllegalArgumentException(operation);
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A filter like the ones the UI sends: mostly nothing or a planet or type, sometimes a range.
+     */
+    private String filter(ThreadLocalRandom random) throws IOException {
+        List<String> parameters = new ArrayList<>();
+        if (random.nextInt(3) == 0) {
+            parameters.add("planet=" + URLEncoder.encode(generator.nextPlanet(), "UTF-8"));
+        }
+        if (random.nextInt(4) == 0) {
+            parameters.add("shipType=" + generator.nextShipType());
+        }
+        if (random.nextInt(5) == 0) {
+            parameters.add("isUsed=" + random.nextBoolean());
+        }
+        if (random.nextInt(5) == 0) {
+            parameters.add("minSpeed=" + random.nextInt(5) / 10.0);
+        }
+        if (random.nextInt(8) == 0) {
+            parameters.add("maxCrewSize=" + (100 + random.nextInt(3000)));
+        }
+        return String.join("&", parameters);
+    }
+
+    Response request(String method, String path, String json) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(10_000);
+        connection.setReadTimeout(60_000);
+        if (json != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (in != null) {
+            // read to the end so the connection goes back to the keep-alive pool
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = stream.read(buffer)) > 0; ) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+        return new Response(status, new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
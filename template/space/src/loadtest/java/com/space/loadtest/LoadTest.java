@@ -0,0 +1,115 @@
+package com.space.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seeds a fleet from {@link FleetGenerator} through {@code POST /rest/ships/import}, then drives a mix of
+ * requests with {@link LoadDriver} and prints the latency percentiles per endpoint. Settings are system
+ * properties:
+ * <ul>
+ * <li>{@code load.url}: a running server to test; empty starts the application on an {@link EmbeddedServer};</li>
+ * <li>{@code load.ships}: ships to seed (default 10000);</li>
+ * <li>{@code load.rate}: requests per second (default 200);</li>
+ * <li>{@code load.warmup}, {@code load.duration}: seconds of unreported warm-up and of measurement
+ * (defaults 10 and 60);</li>
+ * <li>{@code load.threads}: client workers, and server threads when embedded (default 64);</li>
+ * <li>{@code load.mix}: operation weights (default {@code list:40,count:15,get:25,create:10,update:7,delete:3});</li>
+ * <li>{@code load.seed}: seed of the fleet and of the arrivals (default 42).</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("load.url", "");
+        int ships = Integer.getInteger("load.ships", 10_000);
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        int warmup = Integer.getInteger("load.warmup", 10);
+        int duration = Integer.getInteger("load.duration", 60);
+        int threads = Integer.getInteger("load.threads", 64);
+        Map<String, Integer> mix = parseMix(System.getProperty("load.mix", "list:40,count:15,get:25,create:10,update:7,delete:3"));
+        long seed = Long.getLong("load.seed", 42);
+        System.setProperty("http.maxConnections", String.valueOf(threads));
+
+        EmbeddedServer server = url.isEmpty() ? EmbeddedServer.start(threads) : null;
+        try {
+            String baseUrl = server != null ? server.getBaseUrl() : url;
+            FleetGenerator generator = new FleetGenerator(seed);
+            ShipIds ids = new ShipIds();
+            LoadDriver driver = new LoadDriver(baseUrl, mix, generator, ids);
+
+            long seedStart = System.nanoTime();
+            seed(baseUrl, generator, ships);
+            loadIds(driver, ids);
+            System.out.printf("Seeded %d ships in %.1f s, %d ships in the fleet%n",
+                    ships, (System.nanoTime() - seedStart) / 1e9, ids.size());
+
+            if (warmup > 0) {
+                driver.run(rate, warmup, threads, seed);
+            }
+            Map<String, LatencyRecorder> recorders = driver.run(rate, duration, threads, seed + 1);
+            System.out.printf("%n%.0f requests/s offered for %d s, mix %s%n", rate, duration, mix);
+            System.out.println(LatencyRecorder.header());
+            for (LatencyRecorder recorder : recorders.values()) {
+                System.out.println(recorder.report(duration));
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix has no positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static void seed(String baseUrl, FleetGenerator generator, int ships) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/rest/ships/import?format=ndjson")
+                .openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(64 * 1024);
+        connection.setRequestProperty("Content-Type", "application/x-ndjson");
+        try (OutputStream out = connection.getOutputStream()) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            generator.write(ships, writer);
+        }
+        if (connection.getResponseCode() != 200) {
+            throw new IOException("Seeding failed with HTTP " + connection.getResponseCode());
+        }
+        connection.getInputStream().close();
+    }
+
+    /**
+     * Takes the ids of the whole fleet, seeded or not, from the CSV export.
+     */
+    private static void loadIds(LoadDriver driver, ShipIds ids) throws IOException {
+        String csv = driver.request("GET", "/rest/ships/export?format=csv", null).body;
+        String[] lines = csv.split("\r?\n");
+        for (int i = 1; i < lines.length; i++) {
+            if (!lines[i].isEmpty()) {
+                ids.add(Long.parseLong(lines[i].substring(0, lines[i].indexOf(','))));
+            }
+        }
+    }
+}
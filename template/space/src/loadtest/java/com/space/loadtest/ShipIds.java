@@ -0,0 +1,43 @@
+package com.space.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The ids of the ships known to exist, with constant-time random picks and removals.
+ */
+final class ShipIds {
+    private long[] ids = new long[1024];
+    private int size;
+
+    synchronized void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns a random id, or -1 when there is none.
+     */
+    synchronized long random() {
+        return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    /**
+     * Removes and returns a random id, or returns -1 when there is none.
+     */
+    synchronized long take() {
+        if (size == 0) {
+            return -1;
+        }
+        int index = ThreadLocalRandom.current().nextInt(size);
+        long id = ids[index];
+        ids[index] = ids[--size];
+        return id;
+    }
+}
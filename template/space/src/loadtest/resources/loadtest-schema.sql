@@ -0,0 +1,27 @@
+DROP TABLE IF EXISTS ship;
+
+CREATE TABLE ship
+(
+    id       BIGINT      NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(50) NULL,
+    planet   VARCHAR(50) NULL,
+    shipType VARCHAR(9)  NULL,
+    prodDate DATE        NULL,
+    isUsed   BOOLEAN     NULL,
+    speed    DOUBLE      NULL,
+    crewSize INT         NULL,
+    rating   DOUBLE      NULL,
+    version  BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+DROP TABLE IF EXISTS ship_modification;
+
+CREATE TABLE ship_modification
+(
+    id            INT    NOT NULL,
+    modifications BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO ship_modification (id, modifications) VALUES (1, 0);
@@ -1,11 +1,18 @@
 package com.space.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -16,12 +23,21 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableTransactionManagement
-@ComponentScan("com.space.service")
+@ComponentScan({"com.space.service", "com.space.repository"})
 @EnableJpaRepositories(basePackages = "com.space.repository")
+@PropertySource("classpath:application.properties")
 public class AppConfig {
+    @Autowired
+    private Environment environment;
 
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
@@ -37,13 +53,64 @@ public class AppConfig {
     }
 
     @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    @Bean(destroyMethod = "close")
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+        HikariConfig config = PooledDataSources.config(environment, "cosmoport");
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipQueryExecutor(@Value("${ship.query.threads:2}") int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipImportExecutor() {
+        return Executors.newCachedThreadPool();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipRatingExecutor() {
+        return Executors.newSingleThreadExecutor();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipLookupExecutor(@Value("${ship.bulkhead.lookup.threads:2}") int threads,
+                                              @Value("${ship.bulkhead.lookup.queue:128}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipReadExecutor(@Value("${ship.bulkhead.read.threads:3}") int threads,
+                                            @Value("${ship.bulkhead.read.queue:64}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipWriteExecutor(@Value("${ship.bulkhead.write.threads:1}") int threads,
+                                             @Value("${ship.bulkhead.write.queue:64}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipBulkExecutor(@Value("${ship.bulkhead.bulk.threads:1}") int threads,
+                                            @Value("${ship.bulkhead.bulk.queue:2}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService shipStatsScheduler() {
+        return Executors.newSingleThreadScheduledExecutor();
     }
 
     @Bean
@@ -54,6 +121,11 @@ public class AppConfig {
         return transactionManager;
     }
 
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
     @Bean
     public PersistenceExceptionTranslationPostProcessor exceptionTranslation() {
         return new PersistenceExceptionTranslationPostProcessor();
@@ -66,6 +138,17 @@ public class AppConfig {
         properties.setProperty("hibernate.show_sql",
                 "true");
         properties.setProperty("hibernate.hbm2ddl.auto", "update");
+
+        properties.setProperty("hibernate.generate_statistics",
+                environment.getProperty("ship.cache.statistics.enabled", "false"));
+        if (environment.getProperty("ship.cache.second-level.enabled", Boolean.class, false)) {
+            properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+            properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+            properties.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+            properties.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+        } else {
+            properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        }
         return properties;
     }
 }
\ No newline at end of file
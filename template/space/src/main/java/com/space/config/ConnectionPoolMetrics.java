@@ -0,0 +1,52 @@
+package com.space.config;
+
+import com.space.model.ConnectionPoolStats;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the connection wait times Hikari reports and combines them with the live pool gauges.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        waitNanos.add(elapsedAcquiredNanos);
+        maxWaitNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public ConnectionPoolStats snapshot() {
+        PoolStats stats = poolStats;
+        long count = acquisitions.sum();
+        double averageWaitMillis = count == 0 ? 0 : waitNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        double maxWaitMillis = maxWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        if (stats == null) {
+            return new ConnectionPoolStats(0, 0, 0, 0, 0, count, averageWaitMillis, maxWaitMillis, timeouts.sum());
+        }
+        return new ConnectionPoolStats(stats.getActiveConnections(), stats.getIdleConnections(),
+                stats.getPendingThreads(), stats.getTotalConnections(), stats.getMaxConnections(),
+                count, averageWaitMillis, maxWaitMillis, timeouts.sum());
+    }
+}
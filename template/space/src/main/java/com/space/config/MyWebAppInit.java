@@ -1,5 +1,7 @@
 package com.space.config;
 
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.FrameworkServlet;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
 public class MyWebAppInit extends AbstractAnnotationConfigDispatcherServletInitializer {
@@ -18,4 +20,9 @@ public class MyWebAppInit extends AbstractAnnotationConfigDispatcherServletIniti
     protected String[] getServletMappings() {
         return new String[]{"/"};
     }
+
+    @Override
+    protected FrameworkServlet createDispatcherServlet(WebApplicationContext servletAppContext) {
+        return new ShipDispatcherServlet(servletAppContext);
+    }
 }
\ No newline at end of file
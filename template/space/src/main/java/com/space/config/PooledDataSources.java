@@ -0,0 +1,37 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.core.env.Environment;
+
+/**
+ * Builds the Hikari pool configuration from the {@code db.*} properties shared by the application
+ * and the test contexts.
+ */
+public final class PooledDataSources {
+
+    private PooledDataSources() {
+    }
+
+    public static HikariConfig config(Environment environment, String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(environment.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
+        config.setJdbcUrl(environment.getRequiredProperty("db.url"));
+        config.setUsername(environment.getProperty("db.username"));
+        config.setPassword(environment.getProperty("db.password"));
+
+        config.setMinimumIdle(environment.getProperty("db.pool.minimum-idle", Integer.class, 2));
+        config.setMaximumPoolSize(environment.getProperty("db.pool.maximum-pool-size", Integer.class, 10));
+        config.setConnectionTimeout(environment.getProperty("db.pool.connection-timeout", Long.class, 30000L));
+        config.setIdleTimeout(environment.getProperty("db.pool.idle-timeout", Long.class, 600000L));
+        config.setMaxLifetime(environment.getProperty("db.pool.max-lifetime", Long.class, 1800000L));
+        config.setLeakDetectionThreshold(environment.getProperty("db.pool.leak-detection-threshold", Long.class, 0L));
+        config.setValidationTimeout(environment.getProperty("db.pool.validation-timeout", Long.class, 5000L));
+        String testQuery = environment.getProperty("db.pool.connection-test-query");
+        if (testQuery != null && !testQuery.isEmpty()) {
+            config.setConnectionTestQuery(testQuery);
+        }
+        config.setRegisterMbeans(environment.getProperty("db.pool.register-mbeans", Boolean.class, false));
+        return config;
+    }
+}
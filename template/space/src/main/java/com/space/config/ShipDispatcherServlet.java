@@ -0,0 +1,132 @@
+package com.space.config;
+
+import com.space.controller.ShipBulkheads;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * With {@code ship.bulkhead.enabled}, puts each {@code /rest} request in async mode and hands it to
+ * {@link ShipBulkheads}, so the container thread goes back to accepting connections at once. A request
+ * its bulkhead has no room for gets a 503 with {@code Retry-After} without waiting, and so does one still
+ * queued when {@code ship.bulkhead.timeout} runs out. A request that is already running keeps the
+ * response until it finishes, so the timeout waits for it rather than answering in between.
+ */
+public class ShipDispatcherServlet extends DispatcherServlet {
+    private static final Log log = LogFactory.getLog(ShipDispatcherServlet.class);
+
+    private ShipBulkheads bulkheads;
+
+    public ShipDispatcherServlet(WebApplicationContext webApplicationContext) {
+        super(webApplicationContext);
+    }
+
+    @Override
+    protected void initFrameworkServlet() {
+        bulkheads = getWebApplicationContext().getBean(ShipBulkheads.class);
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        ShipBulkheads.Endpoint endpoint = bulkheads.isEnabled() && request.isAsyncSupported()
+                && request.getDispatcherType() == DispatcherType.REQUEST ? bulkheads.endpoint(request) : null;
+        if (endpoint == null) {
+            super.service(request, response);
+            return;
+        }
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(bulkheads.getTimeout());
+        AtomicBoolean claimed = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+        asyncContext.addListener(new TimeoutListener(response, claimed, finished));
+        boolean accepted = bulkheads.submit(endpoint, () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                ShipDispatcherServlet.super.service(request, response);
+            } catch (Exception e) {
+                log.error("Request " + request.getMethod() + " " + request.getRequestURI() + " failed", e);
+                if (!response.isCommitted()) {
+                    sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            } finally {
+                asyncContext.complete();
+                finished.countDown();
+            }
+        });
+        if (!accepted && claimed.compareAndSet(false, true)) {
+            reject(response);
+            asyncContext.complete();
+        }
+    }
+
+    private static void reject(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    private static void sendError(HttpServletResponse response, int status) {
+        try {
+            response.sendError(status);
+        } catch (IOException e) {
+            log.debug("Could not send " + status, e);
+        }
+    }
+
+    /**
+     * Turns a request still waiting in its bulkhead away when the async timeout fires, or holds the timeout
+     * until the running request has completed the response.
+     */
+    private static class TimeoutListener implements AsyncListener {
+        private final HttpServletResponse response;
+        private final AtomicBoolean claimed;
+        private final CountDownLatch finished;
+
+        TimeoutListener(HttpServletResponse response, AtomicBoolean claimed, CountDownLatch finished) {
+            this.response = response;
+            this.claimed = claimed;
+            this.finished = finished;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (claimed.compareAndSet(false, true)) {
+                reject(response);
+                event.getAsyncContext().complete();
+                return;
+            }
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -2,26 +2,37 @@ package com.space.config;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @Configuration
 @EnableWebMvc
-@ComponentScan("com.space.controller")
+@ComponentScan(basePackages = "com.space.controller",
+        excludeFilters = @ComponentScan.Filter(Configuration.class))
 public class WebConfig implements WebMvcConfigurer {
-
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 
     @Bean
     public ViewResolver internalResourceViewResolver() {
@@ -42,11 +53,51 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/resources/**").addResourceLocations("/resources/");
     }
 
+    /**
+     * The same body is encoded by {@code Accept}, so caches must keep one copy per format.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptorAdapter() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/rest/**");
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return mapFields(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    /**
+     * Binary mappers with the same mapping as {@link #objectMapper()}; not beans, so that
+     * {@link ObjectMapper} stays unambiguous for injection.
+     */
+    ObjectMapper cborObjectMapper() {
+        return mapFields(Jackson2ObjectMapperBuilder.cbor().build());
+    }
+
+    ObjectMapper smileObjectMapper() {
+        return mapFields(Jackson2ObjectMapperBuilder.smile().build());
+    }
+
+    private static ObjectMapper mapFields(ObjectMapper objectMapper) {
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return objectMapper;
+    }
+
+    /**
+     * JSON comes first and stays the default; clients asking for {@value #APPLICATION_CBOR_VALUE} or
+     * {@value #APPLICATION_SMILE_VALUE} get the same payloads in a compact binary encoding.
+     */
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.getObjectMapper().setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
-        converter.getObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-        converters.add(converter);
+        converters.add(new MappingJackson2HttpMessageConverter(objectMapper()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborObjectMapper()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileObjectMapper()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the elements of a JSON array one at a time, from any parser Jackson has (JSON, CBOR, Smile). An
+ * element that does not bind makes {@link #next()} throw {@code 400 Bad Request} without stopping the
+ * iteration, like a malformed line of {@link NdjsonIterator}. Malformed syntax cannot be skipped over, so
+ * it is reported the same way and ends the iteration.
+ */
+class JsonArrayIterator<T> implements Iterator<T> {
+    private final JsonParser parser;
+    private final ObjectReader objectReader;
+    private boolean ready;
+    private boolean ended;
+    private JsonProcessingException failure;
+    private int index;
+
+    JsonArrayIterator(JsonParser parser, ObjectReader objectReader) throws IOException {
+        this.parser = parser;
+        this.objectReader = objectReader;
+        JsonToken token;
+        try {
+            token = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON array", e);
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!ready && !ended) {
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    ended = true;
+                } else {
+                    ready = true;
+                }
+            } catch (JsonProcessingException e) {
+                failure = e;
+                ready = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return ready;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        int element = index++;
+        JsonNode node;
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            node = objectReader.readTree(parser);
+        } catch (JsonProcessingException e) {
+            ended = true;
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON at element " + element, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return objectReader.readValue(node);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed ship at element " + element, e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.space.controller;
+
+import com.space.config.ConnectionPoolMetrics;
+import com.space.model.ConnectionPoolStats;
+import com.space.model.HibernateCacheStats;
+import com.space.model.ShipListCacheStats;
+import com.space.service.ShipListCache;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/rest/metrics")
+public class MetricsController {
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShipListCache shipListCache;
+
+    @GetMapping(path = "/pool")
+    public ConnectionPoolStats getPoolStats() {
+        return connectionPoolMetrics.snapshot();
+    }
+
+    @GetMapping(path = "/cache")
+    public HibernateCacheStats getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return new HibernateCacheStats(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount());
+    }
+
+    @GetMapping(path = "/list-cache")
+    public ShipListCacheStats getListCacheStats() {
+        return shipListCache.snapshot();
+    }
+}
@@ -0,0 +1,62 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads newline-delimited JSON one line at a time. Blank lines are skipped; a line that cannot be
+ * parsed makes {@link #next()} throw {@code 400 Bad Request} without stopping the iteration.
+ */
+class NdjsonIterator<T> implements Iterator<T> {
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private String nextLine;
+    private int lineNumber;
+
+    NdjsonIterator(BufferedReader reader, ObjectReader objectReader) {
+        this.reader = reader;
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (!line.trim().isEmpty()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        try {
+            return objectReader.readValue(line);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON at line " + lineNumber, e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.space.controller;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs {@code /rest} requests on bounded executors instead of on the servlet container threads: one for
+ * lookups, one for the other reads, one for single-ship writes and one for bulk writes. Each
+ * {@link Endpoint} may only have {@code ship.bulkhead.limits} of its requests running or queued at once, so
+ * a burst of heavy searches fills its own share and is turned away, and since searches and imports never
+ * get the threads of lookups and single-ship writes, those still find one free. A request that finds no
+ * room is rejected at once rather than queued without bound.
+ */
+@Component
+public class ShipBulkheads {
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final Map<Pool, ExecutorService> executors = new EnumMap<>(Pool.class);
+    private final boolean enabled;
+    private final long timeout;
+    private final Map<Endpoint, Semaphore> permits = new EnumMap<>(Endpoint.class);
+
+    public ShipBulkheads(@Qualifier("shipLookupExecutor") ExecutorService shipLookupExecutor,
+                         @Qualifier("shipReadExecutor") ExecutorService shipReadExecutor,
+                         @Qualifier("shipWriteExecutor") ExecutorService shipWriteExecutor,
+                         @Qualifier("shipBulkExecutor") ExecutorService shipBulkExecutor,
+                         @Value("${ship.bulkhead.enabled:false}") boolean enabled,
+                         @Value("${ship.bulkhead.timeout:30000}") long timeout,
+                         @Value("${ship.bulkhead.limits:}") String limits) {
+        executors.put(Pool.LOOKUP, shipLookupExecutor);
+        executors.put(Pool.READ, shipReadExecutor);
+        executors.put(Pool.WRITE, shipWriteExecutor);
+        executors.put(Pool.BULK, shipBulkExecutor);
+        this.enabled = enabled;
+        this.timeout = timeout;
+        for (Endpoint endpoint : Endpoint.values()) {
+            permits.put(endpoint, new Semaphore(endpoint.defaultLimit));
+        }
+        for (String limit : limits.split(",")) {
+            if (!limit.trim().isEmpty()) {
+                String[] parts = limit.split(":");
+                permits.put(Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)),
+                        new Semaphore(Integer.parseInt(parts[1].trim())));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the milliseconds a request may spend in the bulkheads before a queued one is turned away.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns the endpoint of a {@code /rest} request, or {@code null} for anything else.
+     */
+    public Endpoint endpoint(HttpServletRequest request) {
+        return Endpoint.of(request.getMethod(), PATH_HELPER.getPathWithinApplication(request));
+    }
+
+    /**
+     * Queues {@code work} on the executor of {@code endpoint}, or returns {@code false} when the endpoint
+     * or the executor is full.
+     */
+    public boolean submit(Endpoint endpoint, Runnable work) {
+        Semaphore semaphore = permits.get(endpoint);
+        if (!semaphore.tryAcquire()) {
+            return false;
+        }
+        try {
+            executors.get(endpoint.pool).execute(() -> {
+                try {
+                    work.run();
+                } finally {
+                    semaphore.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            semaphore.release();
+            return false;
+        }
+    }
+
+    private enum Pool {
+        LOOKUP, READ, WRITE, BULK
+    }
+
+    public enum Endpoint {
+        /** {@code GET /rest/ships/{id}} and other single-row reads. */
+        LOOKUP(Pool.LOOKUP, 64),
+        /** The filtered list, count, page and histogram queries. */
+        SEARCH(Pool.READ, 16),
+        STATS(Pool.READ, 8),
+        EXPORT(Pool.READ, 2),
+        CREATE(Pool.WRITE, 32),
+        UPDATE(Pool.WRITE, 32),
+        DELETE(Pool.WRITE, 32),
+        /** Batch inserts, imports and starting a rating recomputation. */
+        BULK(Pool.BULK, 2);
+
+        private final Pool pool;
+        private final int defaultLimit;
+
+        Endpoint(Pool pool, int defaultLimit) {
+            this.pool = pool;
+            this.defaultLimit = defaultLimit;
+        }
+
+        static Endpoint of(String method, String path) {
+            if (!path.startsWith("/rest/")) {
+                return null;
+            }
+            switch (method) {
+                case "GET":
+                    switch (path) {
+                        case "/rest/ships":
+                        case "/rest/ships/count":
+                        case "/rest/ships/page":
+                        case "/rest/ships/histograms":
+                            return SEARCH;
+                        case "/rest/ships/stats":
+                            return STATS;
+                        case "/rest/ships/export":
+                            return EXPORT;
+                        default:
+                            return LOOKUP;
+                    }
+                case "POST":
+                    switch (path) {
+                        case "/rest/ships":
+                            return CREATE;
+                        case "/rest/ships/batch":
+                        case "/rest/ships/import":
+                        case "/rest/ships/ratings/recompute":
+                            return BULK;
+                        default:
+                            return UPDATE;
+                    }
+                case "DELETE":
+                    return DELETE;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -1,39 +1,108 @@
 package com.space.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.space.config.WebConfig;
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipHistograms;
+import com.space.model.ShipImportResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipRatingRecomputeStatus;
+import com.space.model.ShipStats;
 import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.model.VersionedShipView;
+import com.space.service.ShipCursor;
+import com.space.service.ShipFilter;
+import com.space.service.ShipImportFormat;
 import com.space.service.ShipService;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("/rest")
 public class ShipController {
+    /**
+     * Set on keyset-paginated responses ({@code cursor} parameter present) when more ships may follow;
+     * pass its value back as {@code cursor} to fetch the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf(WebConfig.APPLICATION_CBOR_VALUE);
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf(WebConfig.APPLICATION_SMILE_VALUE);
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+
     @Autowired
     private ShipService shipService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
+    /**
+     * Lists, counts and pages share the ETag of the whole table, so {@code If-None-Match} is answered with
+     * {@code 304 Not Modified} after a single-row read while nothing has been written. The tag counts the
+     * writes in the {@code ship_modification} row, so it holds across instances, and reading it brings the
+     * in-memory caches up to that count, so a body is never older than its tag. SQL run outside the
+     * application must bump that row too (see {@link com.space.service.ShipModificationCounter}).
+     */
     @GetMapping(path = "/ships")
-    public List<Ship> getShipsList(@RequestParam(value = "name", required = false) String name,
-                                   @RequestParam(value = "planet", required = false) String planet,
-                                   @RequestParam(value = "shipType",required = false) ShipType shipType,
-                                   @RequestParam(value = "after", required = false) Long after,
-                                   @RequestParam(value = "before", required = false) Long before,
-                                   @RequestParam(value = "isUsed", required = false) Boolean isUsed,
-                                   @RequestParam(value = "minSpeed", required = false) Double minSpeed,
-                                   @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
-                                   @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
-                                   @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
-                                   @RequestParam(value = "minRating", required = false) Double minRating,
-                                   @RequestParam(value = "maxRating", required = false) Double maxRating,
-                                   @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
-                                   @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
-                                   @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize) {
-        return shipService.getShipsList(name, planet, shipType, after, before, isUsed, minSpeed,
-                maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize);
+    public List<ShipView> getShipsList(@RequestParam(value = "name", required = false) String name,
+                                       @RequestParam(value = "planet", required = false) String planet,
+                                       @RequestParam(value = "shipType",required = false) ShipType shipType,
+                                       @RequestParam(value = "after", required = false) Long after,
+                                       @RequestParam(value = "before", required = false) Long before,
+                                       @RequestParam(value = "isUsed", required = false) Boolean isUsed,
+                                       @RequestParam(value = "minSpeed", required = false) Double minSpeed,
+                                       @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
+                                       @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
+                                       @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
+                                       @RequestParam(value = "minRating", required = false) Double minRating,
+                                       @RequestParam(value = "maxRating", required = false) Double maxRating,
+                                       @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
+                                       @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+                                       @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                       WebRequest request,
+                                       HttpServletResponse response) {
+        if (request.checkNotModified(eTag(shipService.getShipsModifications()))) {
+            return null;
+        }
+        if (cursor == null) {
+            return shipService.getShipsList(name, planet, shipType, after, before, isUsed, minSpeed,
+                    maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize);
+        }
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        List<ShipView> ships = shipService.getShipsList(filter, order,
+                cursor.isEmpty() ? null : ShipCursor.parse(cursor, order), pageSize);
+        if (ships.size() == pageSize) {
+            response.setHeader(NEXT_CURSOR_HEADER, ShipCursor.after(order, ships.get(ships.size() - 1)).encode());
+        }
+        return ships;
     }
 
     @GetMapping(path = "/ships/count")
@@ -48,19 +117,159 @@ public class ShipController {
                                  @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
                                  @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
                                  @RequestParam(value = "minRating", required = false) Double minRating,
-                                 @RequestParam(value = "maxRating", required = false) Double maxRating) {
+                                 @RequestParam(value = "maxRating", required = false) Double maxRating,
+                                 WebRequest request) {
+        if (request.checkNotModified(eTag(shipService.getShipsModifications()))) {
+            return null;
+        }
         return shipService.getShipsCount(name, planet, shipType, after, before, isUsed,
                 minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
     }
 
+    @GetMapping(path = "/ships/page")
+    public ShipPage getShipsPage(ShipFilter filter,
+                                 @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
+                                 @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+                                 @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+                                 @RequestParam(value = "facets", required = false, defaultValue = "false") boolean facets,
+                                 @RequestParam(value = "facetPlanets", required = false, defaultValue = "10") Integer facetPlanets,
+                                 WebRequest request) {
+        if (request.checkNotModified(eTag(shipService.getShipsModifications()))) {
+            return null;
+        }
+        return shipService.getShipsPage(filter, order, pageNumber, pageSize, facets ? facetPlanets : null);
+    }
+
+    /**
+     * Streams every ship matching the filters of {@code GET /rest/ships} as {@code ndjson} or {@code csv},
+     * gzip-compressed when the client accepts it.
+     */
+    @GetMapping(path = "/ships/export")
+    public void exportShips(ShipFilter filter,
+                            @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
+                            @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format,
+                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            HttpServletResponse response) throws IOException {
+        ShipExportFormat exportFormat;
+        try {
+            exportFormat = ShipExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format " + format);
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"ships." + exportFormat.getExtension() + "\"");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        try (ShipExportFormat.ShipWriter writer = exportFormat.open(out, objectMapper)) {
+            shipService.exportShips(filter, order, ship -> {
+                try {
+                    writer.write(ship);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @GetMapping(path = "/ships/stats")
+    public ShipStats getShipsStats() {
+        return shipService.getShipsStats();
+    }
+
+    @GetMapping(path = "/ships/histograms")
+    public ShipHistograms getShipsHistograms(ShipFilter filter,
+                                             @RequestParam(value = "speedWidth", required = false, defaultValue = "0.05") double speedWidth,
+                                             @RequestParam(value = "ratingWidth", required = false, defaultValue = "1") double ratingWidth,
+                                             @RequestParam(value = "crewSizeWidth", required = false, defaultValue = "500") int crewSizeWidth,
+                                             @RequestParam(value = "yearWidth", required = false, defaultValue = "10") int yearWidth) {
+        return shipService.getShipsHistograms(filter, speedWidth, ratingWidth, crewSizeWidth, yearWidth);
+    }
+
     @PostMapping(path = "/ships")
     public Ship createShip(@RequestBody Ship ship) {
         return shipService.createShip(ship);
     }
 
+    /**
+     * Reads the array one element at a time, so an element that does not bind is reported by its index
+     * like an invalid ship instead of failing the whole batch.
+     */
+    @PostMapping(path = "/ships/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, WebConfig.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ShipBatchResult createShips(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        JsonFactory factory = contentType.isCompatibleWith(APPLICATION_CBOR) ? CBOR_FACTORY
+                : contentType.isCompatibleWith(APPLICATION_SMILE) ? SMILE_FACTORY : objectMapper.getFactory();
+        try (JsonParser parser = factory.createParser(request.getInputStream())) {
+            return shipService.createShips(new JsonArrayIterator<>(parser, objectMapper.readerFor(Ship.class)));
+        }
+    }
+
+    @PostMapping(path = "/ships/batch", consumes = NdjsonIterator.MEDIA_TYPE)
+    public ShipBatchResult createShipsFromNdjson(HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = request.getReader()) {
+            return shipService.createShips(new NdjsonIterator<>(reader, objectMapper.readerFor(Ship.class)));
+        }
+    }
+
+    /**
+     * Imports the request body, or the file {@code path} under {@code ship.import.directory}. On failure,
+     * pass the returned {@code offset} back to resume.
+     */
+    @PostMapping(path = "/ships/import")
+    public ShipImportResult importShips(@RequestParam(value = "format", required = false, defaultValue = "ndjson") String format,
+                                        @RequestParam(value = "offset", required = false, defaultValue = "0") Long offset,
+                                        @RequestParam(value = "path", required = false) String path,
+                                        HttpServletRequest request) throws IOException {
+        ShipImportFormat importFormat;
+        try {
+            importFormat = ShipImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown import format " + format);
+        }
+        ObjectReader shipReader = objectMapper.readerFor(Ship.class);
+        if (path != null) {
+            return shipService.importShips(path, importFormat, shipReader, offset);
+        }
+        try (InputStream in = request.getInputStream()) {
+            return shipService.importShips(in, importFormat, shipReader, offset);
+        }
+    }
+
+    /**
+     * Starts recomputing every stored rating; poll {@code GET /rest/ships/ratings/recompute} for its progress.
+     */
+    @PostMapping(path = "/ships/ratings/recompute")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ShipRatingRecomputeStatus recomputeRatings() {
+        return shipService.recomputeRatings();
+    }
+
+    @GetMapping(path = "/ships/ratings/recompute")
+    public ShipRatingRecomputeStatus getRatingRecomputeStatus() {
+        return shipService.getRatingRecomputeStatus();
+    }
+
+    /**
+     * With {@code If-None-Match}, reads the ship's version alone first and answers {@code 304 Not Modified}
+     * while it still matches; otherwise the row and its version come from one query.
+     */
     @GetMapping(path = "/ships/{id}")
-    public Ship getShip(@PathVariable("id") Long id) {
-        return shipService.getShip(id);
+    public ShipView getShip(@PathVariable("id") Long id, WebRequest request, HttpServletResponse response) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(shipService.getShipVersion(id)))) {
+            return null;
+        }
+        VersionedShipView ship = shipService.getShipView(id);
+        response.setHeader(HttpHeaders.ETAG, eTag(ship.getVersion()));
+        return ship.getView();
     }
 
     @PostMapping(path = "/ships/{id}")
@@ -73,4 +282,11 @@ public class ShipController {
         shipService.deleteShip(id);
     }
 
+    /**
+     * Tags are weak: JSON, CBOR and Smile encodings of the same data share one tag, so they are only
+     * semantically equivalent, and {@code Vary: Accept} keeps caches from mixing them up.
+     */
+    private static String eTag(long version) {
+        return "W/\"" + version + "\"";
+    }
 }
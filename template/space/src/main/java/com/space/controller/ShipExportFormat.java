@@ -0,0 +1,124 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.space.model.ShipView;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats of {@code GET /rest/ships/export}. Each writes one ship per line as it arrives, through a
+ * fixed-size buffer, so an export of any size needs the same memory.
+ */
+enum ShipExportFormat {
+    NDJSON(NdjsonIterator.MEDIA_TYPE, "ndjson") {
+        @Override
+        ShipWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writerFor(ShipView.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            return new ShipWriter() {
+                @Override
+                public void write(ShipView ship) throws IOException {
+                    writer.writeValue(generator, ship);
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    generator.close();
+                }
+            };
+        }
+    },
+    CSV("text/csv;charset=UTF-8", "csv") {
+        @Override
+        ShipWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            writer.write("id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating\n");
+            return new ShipWriter() {
+                @Override
+                public void write(ShipView ship) throws IOException {
+                    writer.write(Long.toString(ship.getId()));
+                    writer.write(',');
+                    writeText(writer, ship.getName());
+                    writer.write(',');
+                    writeText(writer, ship.getPlanet());
+                    writer.write(',');
+                    if (ship.getShipType() != null) {
+                        writer.write(ship.getShipType().name());
+                    }
+                    writer.write(',');
+                    writer.write(Long.toString(ship.getProdDate()));
+                    writer.write(',');
+                    writer.write(Boolean.toString(ship.isUsed()));
+                    writer.write(',');
+                    writer.write(Double.toString(ship.getSpeed()));
+                    writer.write(',');
+                    writer.write(Integer.toString(ship.getCrewSize()));
+                    writer.write(',');
+                    writer.write(Double.toString(ship.getRating()));
+                    writer.write('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    ShipExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Closing the writer flushes it and closes {@code out}.
+     */
+    abstract ShipWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Quotes the value as RFC 4180 requires when it contains a separator, a quote or a line break.
+     */
+    private static void writeText(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    interface ShipWriter extends Closeable {
+        void write(ShipView ship) throws IOException;
+    }
+}
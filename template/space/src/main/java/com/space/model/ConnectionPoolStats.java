@@ -0,0 +1,20 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConnectionPoolStats {
+    private int active;
+    private int idle;
+    private int pending;
+    private int total;
+    private int max;
+    private long acquisitions;
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+    private long timeouts;
+}
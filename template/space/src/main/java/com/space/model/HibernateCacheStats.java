@@ -0,0 +1,14 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HibernateCacheStats {
+    private long entityHits;
+    private long entityMisses;
+    private long entityPuts;
+}
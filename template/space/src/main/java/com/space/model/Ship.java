@@ -1,9 +1,12 @@
 package com.space.model;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -12,6 +15,8 @@ import java.util.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "ship")
 public class Ship implements Serializable {
     @Id
@@ -26,6 +31,12 @@ public class Ship implements Serializable {
     private Double speed;
     private Integer crewSize;
     private Double rating;
+    /**
+     * Incremented by Hibernate on every update; {@code GET /rest/ships/{id}} derives its ETag from it.
+     */
+    @Version
+    @JsonIgnore
+    private long version;
 
 
     public Boolean isUsed() {
@@ -0,0 +1,26 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipBatchResult {
+    private int received;
+    private List<Long> ids = new ArrayList<>();
+    private List<Error> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Error {
+        private int index;
+        private int status;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Counts of the ships matching a filter, broken down by ship type, by {@code isUsed} and by planet.
+ * {@code planets} holds only the most common planets, most common first.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipFacets {
+    private Map<ShipType, Long> shipTypes;
+    private long used;
+    private long notUsed;
+    private Map<String, Long> planets;
+}
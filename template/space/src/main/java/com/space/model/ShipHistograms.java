@@ -0,0 +1,31 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Histograms of the ships matching a filter. Ships without the value are left out of its histogram.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipHistograms {
+    private Histogram speed;
+    private Histogram rating;
+    private Histogram crewSize;
+    private Histogram year;
+
+    /**
+     * Bucket {@code i} counts the values in {@code [from + i * width, from + (i + 1) * width)}; values
+     * outside the range the ship validation allows are counted in the first or last bucket.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Histogram {
+        private double from;
+        private double width;
+        private long[] counts;
+    }
+}
@@ -0,0 +1,31 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code offset} is the checkpoint: every line before it has been either inserted
+ * or rejected, so passing it back as {@code offset} resumes the import after an interruption or failure.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipImportResult {
+    private long offset;
+    private boolean completed;
+    private String failure;
+    private long lines;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private double shipsPerSecond;
+    private double bytesPerSecond;
+    /**
+     * The first rejected lines, {@code index} being the 1-based line number counted from {@code offset}.
+     */
+    private List<ShipBatchResult.Error> errors = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipListCacheStats {
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+}
@@ -0,0 +1,25 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * The single row counting the committed writes to the ship table. Mapped so that the schema update creates
+ * the table; {@link com.space.service.ShipModificationCounter} reads and bumps it with JDBC.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "ship_modification")
+public class ShipModification implements Serializable {
+    @Id
+    private Integer id;
+    private long modifications;
+}
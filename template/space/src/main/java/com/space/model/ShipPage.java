@@ -0,0 +1,22 @@
+package com.space.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipPage {
+    private List<ShipView> items;
+    private Integer total;
+    private boolean hasNext;
+    /**
+     * Only present when requested with {@code facets=true}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ShipFacets facets;
+}
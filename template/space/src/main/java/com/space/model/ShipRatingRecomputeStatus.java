@@ -0,0 +1,25 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of the latest rating recomputation. {@code total} is the number of ships when it started;
+ * {@code skipped} counts ships whose rating cannot be computed, and {@code updated} the ones whose stored
+ * rating changed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipRatingRecomputeStatus {
+    private boolean running;
+    private boolean completed;
+    private String failure;
+    private long total;
+    private long scanned;
+    private long updated;
+    private long skipped;
+    private long elapsedMillis;
+    private double shipsPerSecond;
+}
@@ -0,0 +1,38 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Fleet-wide statistics of {@code GET /rest/ships/stats}. {@code reconciledAt} is when the figures were
+ * last recomputed from the table, in epoch millis; changes made since then are already included.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipStats {
+    private long total;
+    private Map<ShipType, Long> shipTypes;
+    private Map<String, Long> planets;
+    private long used;
+    private long notUsed;
+    private Summary speed;
+    private Summary crewSize;
+    private Summary rating;
+    private long reconciledAt;
+
+    /**
+     * All {@code null} when no ship has the value.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Summary {
+        private Double min;
+        private Double max;
+        private Double avg;
+    }
+}
@@ -0,0 +1,22 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable read model of a ship, selected straight from the table for the read endpoints instead of a
+ * managed {@link Ship}. It serializes to the same JSON; {@code prodDate} is in epoch millis.
+ */
+@Getter
+@AllArgsConstructor
+public class ShipView {
+    private final long id;
+    private final String name;
+    private final String planet;
+    private final ShipType shipType;
+    private final long prodDate;
+    private final boolean isUsed;
+    private final double speed;
+    private final int crewSize;
+    private final double rating;
+}
@@ -0,0 +1,15 @@
+package com.space.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A {@link ShipView} with the version of the row it was read from, which becomes the ETag of
+ * {@code GET /rest/ships/{id}}.
+ */
+@Getter
+@AllArgsConstructor
+public class VersionedShipView {
+    private final ShipView view;
+    private final long version;
+}
@@ -0,0 +1,294 @@
+package com.space.repository;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.model.VersionedShipView;
+import com.space.service.ShipCursor;
+import com.space.service.ShipFacetCounter;
+import com.space.service.ShipFilter;
+import com.space.service.ShipHistogramCounter;
+import lombok.AllArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access for bulk writes that would otherwise go through Hibernate one row at a time, and for
+ * reads that only need a {@link ShipView} and so skip the session, the entities and their snapshots.
+ * Hibernate does not see the writes, so the cached entities they change are evicted once they commit.
+ */
+@AllArgsConstructor
+@Repository
+public class ShipJdbcRepository {
+    private static final String SELECT_ALL_SQL = "SELECT " + ShipQueryPlans.COLUMNS + " FROM ship ORDER BY id";
+    private static final String SELECT_BY_ID_SQL = "SELECT " + ShipQueryPlans.COLUMNS + ", version FROM ship WHERE id = ?";
+    private static final String SELECT_VERSION_SQL = "SELECT version FROM ship WHERE id = ?";
+    private static final String SELECT_CHUNK_SQL = "SELECT " + ShipQueryPlans.COLUMNS +
+            " FROM ship WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String AGGREGATE_SQL = "SELECT shipType, planet, isUsed, COUNT(*) AS ships, " +
+            "COUNT(speed) AS countSpeed, SUM(speed) AS sumSpeed, MIN(speed) AS minSpeed, MAX(speed) AS maxSpeed, " +
+            "COUNT(crewSize) AS countCrewSize, SUM(crewSize) AS sumCrewSize, MIN(crewSize) AS minCrewSize, " +
+            "MAX(crewSize) AS maxCrewSize, " +
+            "COUNT(rating) AS countRating, SUM(rating) AS sumRating, MIN(rating) AS minRating, MAX(rating) AS maxRating " +
+            "FROM ship GROUP BY shipType, planet, isUsed";
+    private static final String INSERT_SQL = "INSERT INTO ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String UPDATE_RATING_SQL = "UPDATE ship SET rating = ?, version = version + 1 " +
+            "WHERE id = ? AND prodDate = ? AND isUsed = ? AND speed = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ShipQueryPlans plans = new ShipQueryPlans();
+
+    /**
+     * Unlike {@code findAll(Specification, Pageable)} this never issues the extra count query.
+     * With a {@code cursor} the slice starts right after it.
+     */
+    public List<ShipView> findSlice(ShipFilter filter, ShipOrder order, ShipCursor cursor, long offset, int limit) {
+        List<Object> arguments = ShipQueryPlans.arguments(filter, cursor);
+        arguments.add(limit);
+        arguments.add(offset);
+        return jdbcTemplate.query(plans.select(ShipQueryPlans.shape(filter, cursor), order),
+                (resultSet, rowNumber) -> mapView(resultSet), arguments.toArray());
+    }
+
+    public Optional<VersionedShipView> findViewById(long id) {
+        List<VersionedShipView> views = jdbcTemplate.query(SELECT_BY_ID_SQL, (resultSet, rowNumber) ->
+                new VersionedShipView(mapView(resultSet), resultSet.getLong("version")), id);
+        return views.isEmpty() ? Optional.empty() : Optional.of(views.get(0));
+    }
+
+    /**
+     * Reads only the version of a ship, by primary key, so a conditional GET can be answered without the row.
+     */
+    public Optional<Long> findVersionById(long id) {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class, id);
+        return versions.isEmpty() ? Optional.empty() : Optional.of(versions.get(0));
+    }
+
+    public long count(ShipFilter filter) {
+        return jdbcTemplate.queryForObject(plans.count(ShipQueryPlans.shape(filter, null)), Long.class,
+                ShipQueryPlans.arguments(filter, null).toArray());
+    }
+
+    public ShipFacetCounter facets(ShipFilter filter) {
+        ShipFacetCounter counter = new ShipFacetCounter();
+        jdbcTemplate.query(plans.facets(ShipQueryPlans.shape(filter, null)), (RowCallbackHandler) resultSet -> {
+            String shipType = resultSet.getString("shipType");
+            Boolean isUsed = resultSet.getBoolean("isUsed");
+            if (resultSet.wasNull()) {
+                isUsed = null;
+            }
+            counter.add(shipType == null ? null : ShipType.valueOf(shipType), isUsed,
+                    resultSet.getString("planet"), resultSet.getLong("ships"));
+        }, ShipQueryPlans.arguments(filter, null).toArray());
+        return counter;
+    }
+
+    /**
+     * Streams the speed, rating, crew size and production date of the matches into {@code counter}.
+     */
+    public void histograms(ShipFilter filter, ShipHistogramCounter counter) {
+        Object[] arguments = ShipQueryPlans.arguments(filter, null).toArray();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    plans.histograms(ShipQueryPlans.shape(filter, null)),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize(connection));
+            new ArgumentPreparedStatementSetter(arguments).setValues(statement);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            double speed = resultSet.getDouble(1);
+            if (!resultSet.wasNull()) {
+                counter.addSpeed(speed);
+            }
+            double rating = resultSet.getDouble(2);
+            if (!resultSet.wasNull()) {
+                counter.addRating(rating);
+            }
+            int crewSize = resultSet.getInt(3);
+            if (!resultSet.wasNull()) {
+                counter.addCrewSize(crewSize);
+            }
+            Timestamp prodDate = resultSet.getTimestamp(4);
+            if (prodDate != null) {
+                counter.addProdDate(prodDate.getTime());
+            }
+        });
+    }
+
+    /**
+     * Streams every row, in id order, through a forward-only cursor without materializing the table.
+     */
+    public void scanAll(RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize(connection));
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Streams the matching ships in {@code order} through a forward-only cursor, one view at a time.
+     */
+    public void scan(ShipFilter filter, ShipOrder order, Consumer<ShipView> consumer) {
+        Object[] arguments = ShipQueryPlans.arguments(filter, null).toArray();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    plans.scan(ShipQueryPlans.shape(filter, null), order),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize(connection));
+            new ArgumentPreparedStatementSetter(arguments).setValues(statement);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapView(resultSet)));
+    }
+
+    /**
+     * Returns up to {@code limit} ships with an id greater than {@code afterId}, in id order.
+     */
+    public List<Ship> findChunk(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_CHUNK_SQL, (resultSet, rowNumber) -> mapRow(resultSet), afterId, limit);
+    }
+
+    /**
+     * Sets the rating of every ship in one JDBC batch, but only where the production date, {@code isUsed}
+     * and speed the rating was computed from are still stored, so a concurrent update wins over it. Bumps
+     * the version of every updated ship. Returns the update count of each ship, as {@link Statement#executeBatch()} does.
+     */
+    public int[] updateRatings(List<Ship> ships) {
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_RATING_SQL, ships, ships.size(), (statement, ship) -> {
+            statement.setDouble(1, ship.getRating());
+            statement.setLong(2, ship.getId());
+            statement.setTimestamp(3, new Timestamp(ship.getProdDate().getTime()));
+            statement.setBoolean(4, ship.isUsed());
+            statement.setDouble(5, ship.getSpeed());
+        })[0];
+        evictCachesAfterCommit(ships);
+        return counts;
+    }
+
+    /**
+     * Passes one row per distinct {@code (shipType, planet, isUsed)} with its ship count and the count, sum,
+     * minimum and maximum of speed, crew size and rating, labelled like {@code countSpeed} or {@code maxRating}.
+     */
+    public void aggregate(RowCallbackHandler handler) {
+        jdbcTemplate.query(AGGREGATE_SQL, handler);
+    }
+
+    /**
+     * MySQL Connector/J only streams rows when the fetch size is {@code Integer.MIN_VALUE}.
+     */
+    private static int streamingFetchSize(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().startsWith("MySQL") ? Integer.MIN_VALUE : 1000;
+    }
+
+    public static Ship mapRow(ResultSet resultSet) throws SQLException {
+        Ship ship = new Ship();
+        ship.setId(resultSet.getLong("id"));
+        ship.setName(resultSet.getString("name"));
+        ship.setPlanet(resultSet.getString("planet"));
+        String shipType = resultSet.getString("shipType");
+        ship.setShipType(shipType == null ? null : ShipType.valueOf(shipType));
+        Timestamp prodDate = resultSet.getTimestamp("prodDate");
+        ship.setProdDate(prodDate == null ? null : new Date(prodDate.getTime()));
+        ship.setUsed(resultSet.getObject("isUsed") == null ? null : resultSet.getBoolean("isUsed"));
+        ship.setSpeed(resultSet.getObject("speed") == null ? null : resultSet.getDouble("speed"));
+        ship.setCrewSize(resultSet.getObject("crewSize") == null ? null : resultSet.getInt("crewSize"));
+        ship.setRating(resultSet.getObject("rating") == null ? null : resultSet.getDouble("rating"));
+        return ship;
+    }
+
+    /**
+     * Every column of a stored ship but {@code shipType} is set, since they are validated on the way in.
+     */
+    private static ShipView mapView(ResultSet resultSet) throws SQLException {
+        String shipType = resultSet.getString("shipType");
+        return new ShipView(resultSet.getLong("id"), resultSet.getString("name"), resultSet.getString("planet"),
+                shipType == null ? null : ShipType.valueOf(shipType), resultSet.getTimestamp("prodDate").getTime(),
+                resultSet.getBoolean("isUsed"), resultSet.getDouble("speed"), resultSet.getInt("crewSize"),
+                resultSet.getDouble("rating"));
+    }
+
+    /**
+     * Inserts the ships as one JDBC batch (a single multi-row INSERT with {@code rewriteBatchedStatements})
+     * and sets the generated ids on them.
+     */
+    public void insertAll(List<Ship> ships) {
+        jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement statement) -> {
+                    for (Ship ship : ships) {
+                        statement.setString(1, ship.getName());
+                        statement.setString(2, ship.getPlanet());
+                        if (ship.getShipType() == null) {
+                            statement.setNull(3, Types.VARCHAR);
+                        } else {
+                            statement.setString(3, ship.getShipType().name());
+                        }
+                        statement.setTimestamp(4, new Timestamp(ship.getProdDate().getTime()));
+                        statement.setBoolean(5, ship.isUsed());
+                        statement.setDouble(6, ship.getSpeed());
+                        statement.setInt(7, ship.getCrewSize());
+                        statement.setDouble(8, ship.getRating());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Ship ship : ships) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated id for batch insert");
+                            }
+                            ship.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Evicts the cached entities of the {@code updated} ships.
+     */
+    private void evictCachesAfterCommit(List<Ship> updated) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> {
+            for (Ship ship : updated) {
+                cache.evictEntityData(Ship.class, ship.getId());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+}
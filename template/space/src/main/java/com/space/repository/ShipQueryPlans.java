@@ -0,0 +1,219 @@
+package com.space.repository;
+
+import com.space.controller.ShipOrder;
+import com.space.service.ShipCursor;
+import com.space.service.ShipFilter;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Parameterized SQL for every shape of a ship query, i.e. which filters and whether a cursor are present,
+ * rendered once per shape and order and then reused, so a request no longer builds a criteria tree or
+ * has Hibernate render SQL; it only binds its values.
+ */
+final class ShipQueryPlans {
+    private static final int NAME = 1;
+    private static final int PLANET = 1 << 1;
+    private static final int SHIP_TYPE = 1 << 2;
+    private static final int AFTER = 1 << 3;
+    private static final int BEFORE = 1 << 4;
+    private static final int USED = 1 << 5;
+    private static final int MIN_SPEED = 1 << 6;
+    private static final int MAX_SPEED = 1 << 7;
+    private static final int MIN_CREW_SIZE = 1 << 8;
+    private static final int MAX_CREW_SIZE = 1 << 9;
+    private static final int MIN_RATING = 1 << 10;
+    private static final int MAX_RATING = 1 << 11;
+    private static final int CURSOR = 1 << 12;
+    private static final int SHAPES = 1 << 13;
+    private static final ShipOrder[] ORDERS = ShipOrder.values();
+
+    static final String COLUMNS = "id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating";
+
+    private final AtomicReferenceArray<String> selects = new AtomicReferenceArray<>(SHAPES * ORDERS.length);
+    private final AtomicReferenceArray<String> scans = new AtomicReferenceArray<>(SHAPES * ORDERS.length);
+    private final AtomicReferenceArray<String> counts = new AtomicReferenceArray<>(SHAPES);
+    private final AtomicReferenceArray<String> facets = new AtomicReferenceArray<>(SHAPES);
+    private final AtomicReferenceArray<String> histograms = new AtomicReferenceArray<>(SHAPES);
+
+    static int shape(ShipFilter filter, ShipCursor cursor) {
+        return (filter.getName() != null ? NAME : 0)
+                | (filter.getPlanet() != null ? PLANET : 0)
+                | (filter.getShipType() != null ? SHIP_TYPE : 0)
+                | (filter.getAfter() != null ? AFTER : 0)
+                | (filter.getBefore() != null ? BEFORE : 0)
+                | (filter.getIsUsed() != null ? USED : 0)
+                | (filter.getMinSpeed() != null ? MIN_SPEED : 0)
+                | (filter.getMaxSpeed() != null ? MAX_SPEED : 0)
+                | (filter.getMinCrewSize() != null ? MIN_CREW_SIZE : 0)
+                | (filter.getMaxCrewSize() != null ? MAX_CREW_SIZE : 0)
+                | (filter.getMinRating() != null ? MIN_RATING : 0)
+                | (filter.getMaxRating() != null ? MAX_RATING : 0)
+                | (cursor != null ? CURSOR : 0);
+    }
+
+    /**
+     * Slices are ordered by {@code (order field, id)}, so ties come back in the same order on every page.
+     * The limit and offset are the last two parameters.
+     */
+    String select(int shape, ShipOrder order) {
+        int index = shape * ORDERS.length + order.ordinal();
+        String sql = selects.get(index);
+        if (sql == null) {
+            sql = ordered(shape, order).append(" LIMIT ? OFFSET ?").toString();
+            selects.set(index, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Like {@link #select(int, ShipOrder)} but for every matching row, without the limit and offset.
+     */
+    String scan(int shape, ShipOrder order) {
+        int index = shape * ORDERS.length + order.ordinal();
+        String sql = scans.get(index);
+        if (sql == null) {
+            sql = ordered(shape, order).toString();
+            scans.set(index, sql);
+        }
+        return sql;
+    }
+
+    private static StringBuilder ordered(int shape, ShipOrder order) {
+        StringBuilder builder = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ship");
+        appendWhere(builder, shape, order);
+        builder.append(" ORDER BY ").append(order.getFieldName());
+        if (order != ShipOrder.ID) {
+            builder.append(", id");
+        }
+        return builder;
+    }
+
+    String count(int shape) {
+        String sql = counts.get(shape);
+        if (sql == null) {
+            StringBuilder builder = new StringBuilder("SELECT COUNT(*) FROM ship");
+            appendWhere(builder, shape, null);
+            sql = builder.toString();
+            counts.set(shape, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * One row per distinct {@code (shipType, isUsed, planet)} among the matches, with its count, so every
+     * facet comes out of a single scan.
+     */
+    String facets(int shape) {
+        String sql = facets.get(shape);
+        if (sql == null) {
+            StringBuilder builder = new StringBuilder("SELECT shipType, isUsed, planet, COUNT(*) AS ships FROM ship");
+            appendWhere(builder, shape, null);
+            sql = builder.append(" GROUP BY shipType, isUsed, planet").toString();
+            facets.set(shape, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Only the four histogram columns of the matches, unordered, so they stream in a single pass.
+     */
+    String histograms(int shape) {
+        String sql = histograms.get(shape);
+        if (sql == null) {
+            StringBuilder builder = new StringBuilder("SELECT speed, rating, crewSize, prodDate FROM ship");
+            appendWhere(builder, shape, null);
+            sql = builder.toString();
+            histograms.set(shape, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Returns the values of the present filters and cursor, in the order of their placeholders.
+     */
+    static List<Object> arguments(ShipFilter filter, ShipCursor cursor) {
+        List<Object> arguments = new ArrayList<>();
+        if (filter.getName() != null) {
+            arguments.add(containing(filter.getName()));
+        }
+        if (filter.getPlanet() != null) {
+            arguments.add(containing(filter.getPlanet()));
+        }
+        if (filter.getShipType() != null) {
+            arguments.add(filter.getShipType().name());
+        }
+        if (filter.getAfter() != null) {
+            arguments.add(new Timestamp(filter.getAfter()));
+        }
+        if (filter.getBefore() != null) {
+            arguments.add(new Timestamp(filter.getBefore()));
+        }
+        if (filter.getIsUsed() != null) {
+            arguments.add(filter.getIsUsed());
+        }
+        addIfPresent(arguments, filter.getMinSpeed());
+        addIfPresent(arguments, filter.getMaxSpeed());
+        addIfPresent(arguments, filter.getMinCrewSize());
+        addIfPresent(arguments, filter.getMaxCrewSize());
+        addIfPresent(arguments, filter.getMinRating());
+        addIfPresent(arguments, filter.getMaxRating());
+        if (cursor != null) {
+            if (cursor.getOrder() != ShipOrder.ID) {
+                Object value = cursor.getValue() instanceof Date
+                        ? new Timestamp(((Date) cursor.getValue()).getTime()) : cursor.getValue();
+                arguments.add(value);
+                arguments.add(value);
+            }
+            arguments.add(cursor.getId());
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns a LIKE pattern matching {@code value} as a literal substring, like {@link ShipFilter}
+     * does: its {@code %} and {@code _} are escaped with the {@code !} named in the {@code ESCAPE} clause.
+     */
+    static String containing(String value) {
+        return "%" + value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private static void addIfPresent(List<Object> arguments, Object value) {
+        if (value != null) {
+            arguments.add(value);
+        }
+    }
+
+    private static void appendWhere(StringBuilder builder, int shape, ShipOrder order) {
+        int conditions = 0;
+        conditions = append(builder, conditions, shape, NAME, "name LIKE ? ESCAPE '!'");
+        conditions = append(builder, conditions, shape, PLANET, "planet LIKE ? ESCAPE '!'");
+        conditions = append(builder, conditions, shape, SHIP_TYPE, "shipType = ?");
+        conditions = append(builder, conditions, shape, AFTER, "prodDate >= ?");
+        conditions = append(builder, conditions, shape, BEFORE, "prodDate <= ?");
+        conditions = append(builder, conditions, shape, USED, "isUsed = ?");
+        conditions = append(builder, conditions, shape, MIN_SPEED, "speed >= ?");
+        conditions = append(builder, conditions, shape, MAX_SPEED, "speed <= ?");
+        conditions = append(builder, conditions, shape, MIN_CREW_SIZE, "crewSize >= ?");
+        conditions = append(builder, conditions, shape, MAX_CREW_SIZE, "crewSize <= ?");
+        conditions = append(builder, conditions, shape, MIN_RATING, "rating >= ?");
+        conditions = append(builder, conditions, shape, MAX_RATING, "rating <= ?");
+        if (order != null) {
+            String field = order.getFieldName();
+            append(builder, conditions, shape, CURSOR, order == ShipOrder.ID ? "id > ?"
+                    : "(" + field + " > ? OR (" + field + " = ? AND id > ?))");
+        }
+    }
+
+    private static int append(StringBuilder builder, int conditions, int shape, int bit, String condition) {
+        if ((shape & bit) == 0) {
+            return conditions;
+        }
+        builder.append(conditions == 0 ? " WHERE " : " AND ").append(condition);
+        return conditions + 1;
+    }
+}
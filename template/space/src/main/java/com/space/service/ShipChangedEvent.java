@@ -0,0 +1,18 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link ShipServiceImpl} whenever a ship is created, updated or deleted.
+ * {@code previous} holds the state before the change and is {@code null} for creations;
+ * {@code ship} holds the state after the change and is {@code null} for deletions.
+ */
+@Getter
+@AllArgsConstructor
+public class ShipChangedEvent {
+    private final Long id;
+    private final Ship previous;
+    private final Ship ship;
+}
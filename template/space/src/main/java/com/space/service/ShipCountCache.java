@@ -0,0 +1,48 @@
+package com.space.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of ship counts keyed by filter. Any committed write clears it, through
+ * {@link ShipModificationCounter}; a count computed while a write was in flight is not stored, so cached
+ * values always match the committed table.
+ */
+@Component
+public class ShipCountCache {
+    private final int capacity;
+    private final Map<ShipFilter, Integer> counts;
+    private long generation;
+
+    public ShipCountCache(@Value("${ship.cache.count.size:1024}") int capacity) {
+        this.capacity = capacity;
+        this.counts = new LinkedHashMap<ShipFilter, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ShipFilter, Integer> eldest) {
+                return size() > ShipCountCache.this.capacity;
+            }
+        };
+    }
+
+    public synchronized Integer get(ShipFilter filter) {
+        return counts.get(filter);
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void put(ShipFilter filter, Integer count, long generation) {
+        if (capacity > 0 && generation == this.generation) {
+            counts.put(filter, count);
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        counts.clear();
+    }
+}
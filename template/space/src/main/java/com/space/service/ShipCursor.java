@@ -0,0 +1,64 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.ShipView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Continuation token for keyset pagination: the sort value and id of the last ship of a page.
+ * The next page starts strictly after {@code (value, id)} in {@code (order field, id)} order.
+ */
+@Getter
+@AllArgsConstructor
+public class ShipCursor {
+    private final ShipOrder order;
+    private final Comparable<?> value;
+    private final Long id;
+
+    public static ShipCursor after(ShipOrder order, ShipView ship) {
+        switch (order) {
+            case SPEED:
+                return new ShipCursor(order, ship.getSpeed(), ship.getId());
+            case DATE:
+                return new ShipCursor(order, new Date(ship.getProdDate()), ship.getId());
+            case RATING:
+                return new ShipCursor(order, ship.getRating(), ship.getId());
+            default:
+                return new ShipCursor(order, ship.getId(), ship.getId());
+        }
+    }
+
+    public static ShipCursor parse(String token, ShipOrder order) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || ShipOrder.valueOf(parts[0]) != order) {
+                throw new IllegalArgumentException(token);
+            }
+            Long id = Long.valueOf(parts[2]);
+            switch (order) {
+                case SPEED:
+                case RATING:
+                    return new ShipCursor(order, Double.valueOf(parts[1]), id);
+                case DATE:
+                    return new ShipCursor(order, new Date(Long.parseLong(parts[1])), id);
+                default:
+                    return new ShipCursor(order, id, id);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String encodedValue = value instanceof Date ? String.valueOf(((Date) value).getTime()) : String.valueOf(value);
+        String plain = order.name() + ":" + encodedValue + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.space.service;
+
+import com.space.model.ShipFacets;
+import com.space.model.ShipType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates every facet of {@link ShipFacets} in the same pass over the matching ships, whether they
+ * come one by one from the column store or as grouped counts from the database.
+ */
+public final class ShipFacetCounter {
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+
+    private final long[] shipTypes = new long[SHIP_TYPES.length];
+    private final Map<String, long[]> planets = new HashMap<>();
+    private long total;
+    private long used;
+    private long notUsed;
+
+    public void add(ShipType shipType, Boolean isUsed, String planet, long count) {
+        total += count;
+        if (shipType != null) {
+            shipTypes[shipType.ordinal()] += count;
+        }
+        if (isUsed != null) {
+            if (isUsed) {
+                used += count;
+            } else {
+                notUsed += count;
+            }
+        }
+        if (planet != null) {
+            planets.computeIfAbsent(planet, key -> new long[1])[0] += count;
+        }
+    }
+
+    public void addAll(ShipFacetCounter other) {
+        total += other.total;
+        used += other.used;
+        notUsed += other.notUsed;
+        for (int i = 0; i < shipTypes.length; i++) {
+            shipTypes[i] += other.shipTypes[i];
+        }
+        for (Map.Entry<String, long[]> planet : other.planets.entrySet()) {
+            planets.computeIfAbsent(planet.getKey(), key -> new long[1])[0] += planet.getValue()[0];
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Keeps the {@code topPlanets} most common planets; ties go to the planet that sorts first.
+     */
+    public ShipFacets toFacets(int topPlanets) {
+        Map<ShipType, Long> byShipType = new EnumMap<>(ShipType.class);
+        for (ShipType shipType : SHIP_TYPES) {
+            byShipType.put(shipType, shipTypes[shipType.ordinal()]);
+        }
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(planets.entrySet());
+        sorted.sort((a, b) -> a.getValue()[0] != b.getValue()[0]
+                ? Long.compare(b.getValue()[0], a.getValue()[0]) : a.getKey().compareTo(b.getKey()));
+        Map<String, Long> byPlanet = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> planet : sorted.subList(0, Math.min(topPlanets, sorted.size()))) {
+            byPlanet.put(planet.getKey(), planet.getValue()[0]);
+        }
+        return new ShipFacets(byShipType, used, notUsed, byPlanet);
+    }
+}
@@ -0,0 +1,54 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipFilter {
+    private String name;
+    private String planet;
+    private ShipType shipType;
+    private Long after;
+    private Long before;
+    private Boolean isUsed;
+    private Double minSpeed;
+    private Double maxSpeed;
+    private Integer minCrewSize;
+    private Integer maxCrewSize;
+    private Double minRating;
+    private Double maxRating;
+
+    /**
+     * Evaluates the filter the way the list and count queries do: name and planet are
+     * case-insensitive substrings, every range is inclusive.
+     */
+    public boolean matches(Ship ship) {
+        return contains(ship.getName(), name) && contains(ship.getPlanet(), planet)
+                && (shipType == null || shipType == ship.getShipType())
+                && (isUsed == null || isUsed.equals(ship.isUsed()))
+                && within(ship.getProdDate() == null ? null : ship.getProdDate().getTime(), after, before)
+                && within(ship.getSpeed(), minSpeed, maxSpeed)
+                && within(ship.getCrewSize(), minCrewSize, maxCrewSize)
+                && within(ship.getRating(), minRating, maxRating);
+    }
+
+    private static boolean contains(String value, String pattern) {
+        return pattern == null || (value != null
+                && value.toLowerCase(Locale.ROOT).contains(pattern.toLowerCase(Locale.ROOT)));
+    }
+
+    private static <T extends Comparable<T>> boolean within(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+    }
+}
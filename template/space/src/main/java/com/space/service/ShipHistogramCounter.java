@@ -0,0 +1,120 @@
+package com.space.service;
+
+import com.space.model.ShipHistograms;
+
+/**
+ * Fills the four {@link ShipHistograms} in one pass over the matching ships, into {@code long[]} buckets
+ * that span the values the ship validation allows, so adding a valid ship neither boxes nor allocates.
+ */
+public final class ShipHistogramCounter {
+    private static final double MIN_SPEED = 0.01;
+    private static final double MAX_SPEED = 0.99;
+    private static final double MIN_RATING = 0;
+    private static final double MAX_RATING = 80;
+    private static final int MIN_CREW_SIZE = 1;
+    private static final int MAX_CREW_SIZE = 9999;
+    private static final int MAX_BUCKETS = 10_000;
+    /**
+     * Bucket boundaries are computed in doubles, so a value exactly on one may land a hair below it.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final Buckets speed;
+    private final Buckets rating;
+    private final Buckets crewSize;
+    private final Buckets year;
+
+    /**
+     * @throws IllegalArgumentException when a width is not positive or makes too many buckets
+     */
+    public ShipHistogramCounter(double speedWidth, double ratingWidth, int crewSizeWidth, int yearWidth) {
+        this(new Buckets(MIN_SPEED, MAX_SPEED, speedWidth), new Buckets(MIN_RATING, MAX_RATING, ratingWidth),
+                new Buckets(MIN_CREW_SIZE, MAX_CREW_SIZE, crewSizeWidth),
+                new Buckets(ShipValidator.MIN_YEAR, ShipValidator.MAX_YEAR, yearWidth));
+    }
+
+    private ShipHistogramCounter(Buckets speed, Buckets rating, Buckets crewSize, Buckets year) {
+        this.speed = speed;
+        this.rating = rating;
+        this.crewSize = crewSize;
+        this.year = year;
+    }
+
+    /**
+     * Returns an empty counter with the same buckets, for counting a part of the ships in parallel.
+     */
+    public ShipHistogramCounter emptyCopy() {
+        return new ShipHistogramCounter(speed.emptyCopy(), rating.emptyCopy(), crewSize.emptyCopy(), year.emptyCopy());
+    }
+
+    public void addSpeed(double value) {
+        speed.add(value);
+    }
+
+    public void addRating(double value) {
+        rating.add(value);
+    }
+
+    public void addCrewSize(int value) {
+        crewSize.add(value);
+    }
+
+    public void addProdDate(long epochMillis) {
+        year.add(ShipValidator.year(epochMillis));
+    }
+
+    public void addAll(ShipHistogramCounter other) {
+        speed.addAll(other.speed);
+        rating.addAll(other.rating);
+        crewSize.addAll(other.crewSize);
+        year.addAll(other.year);
+    }
+
+    public ShipHistograms toHistograms() {
+        return new ShipHistograms(speed.toHistogram(), rating.toHistogram(), crewSize.toHistogram(), year.toHistogram());
+    }
+
+    private static final class Buckets {
+        final double from;
+        final double width;
+        final long[] counts;
+
+        Buckets(double min, double max, double width) {
+            if (!(width > 0)) {
+                throw new IllegalArgumentException("Bucket width must be positive");
+            }
+            double buckets = Math.floor((max - Math.floor(min / width) * width) / width + EPSILON) + 1;
+            if (buckets > MAX_BUCKETS) {
+                throw new IllegalArgumentException("Bucket width makes more than " + MAX_BUCKETS + " buckets");
+            }
+            this.from = Math.floor(min / width) * width;
+            this.width = width;
+            this.counts = new long[(int) buckets];
+        }
+
+        private Buckets(Buckets buckets) {
+            this.from = buckets.from;
+            this.width = buckets.width;
+            this.counts = new long[buckets.counts.length];
+        }
+
+        Buckets emptyCopy() {
+            return new Buckets(this);
+        }
+
+        void add(double value) {
+            double bucket = Math.floor((value - from) / width + EPSILON);
+            counts[bucket < 0 ? 0 : bucket >= counts.length ? counts.length - 1 : (int) bucket]++;
+        }
+
+        void addAll(Buckets other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+        }
+
+        ShipHistograms.Histogram toHistogram() {
+            return new ShipHistograms.Histogram(from, width, counts.clone());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.space.service;
+
+/**
+ * Line formats the import pipeline reads. {@code CSV} needs a header line naming the columns, as written
+ * by {@code GET /rest/ships/export?format=csv}; {@code id} and {@code rating} are ignored if present.
+ */
+public enum ShipImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,517 @@
+package com.space.service;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipImportResult;
+import com.space.model.ShipType;
+import com.space.repository.ShipJdbcRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Imports ships from a CSV or NDJSON stream in four stages connected by bounded queues: parse (on the
+ * calling thread, which also reads the input), validate with the {@link ShipValidator} rules, rate, and
+ * insert in JDBC batches. A slow stage blocks the ones before it, down to reading the input, so memory
+ * stays flat however large the input is.
+ * <p>
+ * Every line carries the byte offset at which it ends. Once a batch commits, the end of its last line
+ * becomes the checkpoint reported as {@link ShipImportResult#getOffset()}; an import started from that
+ * offset continues with the next line.
+ */
+@Component
+public class ShipImportPipeline {
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_LINE_BYTES = 1 << 20;
+    private static final List<String> CSV_COLUMNS =
+            Arrays.asList("name", "planet", "shipType", "prodDate", "isUsed", "speed", "crewSize");
+
+    private final ShipJdbcRepository shipJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService shipImportExecutor;
+    private final int queueCapacity;
+    private final Path directory;
+
+    public ShipImportPipeline(ShipJdbcRepository shipJdbcRepository,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Qualifier("shipImportExecutor") ExecutorService shipImportExecutor,
+                              @Value("${ship.import.queue-capacity:1024}") int queueCapacity,
+                              @Value("${ship.import.directory:}") String directory) {
+        this.shipJdbcRepository = shipJdbcRepository;
+        this.transactionManager = transactionManager;
+        this.eventPublisher = eventPublisher;
+        this.shipImportExecutor = shipImportExecutor;
+        this.queueCapacity = queueCapacity;
+        this.directory = directory.isEmpty() ? null : Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Imports a file under {@code ship.import.directory}; {@code path} is resolved against it.
+     */
+    public ShipImportResult importFile(String path, ShipImportFormat format, ObjectReader shipReader, long offset)
+            throws IOException {
+        if (directory == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "File imports are disabled");
+        }
+        Path file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Path is outside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No such file " + path);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return importStream(in, format, shipReader, offset);
+        }
+    }
+
+    /**
+     * Imports from {@code in}, which must start at byte 0 of the input; the first {@code offset} bytes are
+     * skipped (for a CSV file, after its header has been read). {@code shipReader} parses NDJSON lines.
+     */
+    public ShipImportResult importStream(InputStream in, ShipImportFormat format, ObjectReader shipReader, long offset)
+            throws IOException {
+        if (offset < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Negative offset");
+        }
+        long start = System.nanoTime();
+        LineReader reader = new LineReader(in);
+        Import job = new Import(offset);
+        Parser parser = format == ShipImportFormat.CSV ? csvParser(reader, job) : shipReader::readValue;
+        if (offset > reader.position()) {
+            reader.skip(offset - reader.position());
+            job.lineNumber = 0;
+        }
+        job.checkpoint = reader.position();
+
+        Future<?> validate = shipImportExecutor.submit(() -> job.stage(job.parsed, job.validated, this::validate));
+        Future<?> rate = shipImportExecutor.submit(() -> job.stage(job.validated, job.rated, this::rate));
+        Future<?> insert = shipImportExecutor.submit(() -> insert(job));
+        try {
+            parse(reader, parser, job);
+        } finally {
+            job.put(job.parsed, Item.end(reader.position()));
+            await(validate);
+            await(rate);
+            await(insert);
+        }
+
+        ShipImportResult result = new ShipImportResult();
+        result.setOffset(job.checkpoint);
+        result.setCompleted(job.failure == null);
+        result.setFailure(job.failure);
+        result.setLines(job.lines);
+        result.setImported(job.imported);
+        result.setRejected(job.rejected);
+        result.setErrors(job.errors);
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setShipsPerSecond(job.imported * 1e9 / elapsedNanos);
+        result.setBytesPerSecond((job.checkpoint - offset) * 1e9 / elapsedNanos);
+        return result;
+    }
+
+    private void parse(LineReader reader, Parser parser, Import job) {
+        while (job.failure == null) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException | ResponseStatusException e) {
+                job.fail(e.getMessage());
+                return;
+            }
+            if (line == null) {
+                return;
+            }
+            job.lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            job.lines++;
+            Item item = new Item(job.lineNumber, reader.position());
+            try {
+                item.ship = parser.parse(line);
+                if (item.ship == null) {
+                    item.reject(HttpStatus.BAD_REQUEST, "Empty record at line " + job.lineNumber);
+                }
+            } catch (IOException | RuntimeException e) {
+                item.reject(HttpStatus.BAD_REQUEST, "Malformed record at line " + job.lineNumber);
+            }
+            job.put(job.parsed, item);
+        }
+    }
+
+    /**
+     * Copies the accepted fields like {@code createShip}, so ids and ratings in the input are ignored.
+     */
+    private void validate(Item item) {
+        Ship ship = item.ship;
+        ShipValidator.isParamTrue(ship);
+        Ship newShip = new Ship();
+        newShip.setName(ship.getName());
+        newShip.setPlanet(ship.getPlanet());
+        newShip.setUsed(ship.isUsed() != null && ship.isUsed());
+        newShip.setProdDate(ship.getProdDate());
+        newShip.setShipType(ship.getShipType());
+        newShip.setSpeed(ship.getSpeed());
+        newShip.setCrewSize(ship.getCrewSize());
+        item.ship = newShip;
+    }
+
+    private void rate(Item item) {
+        item.ship.setRating(ShipValidator.getRating(item.ship));
+    }
+
+    private void insert(Import job) {
+        List<Ship> batch = new ArrayList<>(BATCH_SIZE);
+        Item item;
+        do {
+            item = job.take(job.rated);
+            if (item.ship != null) {
+                batch.add(item.ship);
+                if (batch.size() == BATCH_SIZE) {
+                    flush(job, batch, item.end);
+                }
+            } else if (item.error != null) {
+                job.rejected++;
+                if (job.errors.size() < MAX_REPORTED_ERRORS) {
+                    job.errors.add(item.error);
+                }
+                if (batch.isEmpty() && job.failure == null) {
+                    job.checkpoint = item.end;
+                }
+            }
+        } while (!item.last);
+        flush(job, batch, item.end);
+    }
+
+    private void flush(Import job, List<Ship> batch, long end) {
+        if (job.failure != null) {
+            batch.clear();
+            return;
+        }
+        try {
+            if (!batch.isEmpty()) {
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    shipJdbcRepository.insertAll(batch);
+                    for (Ship ship : batch) {
+                        eventPublisher.publishEvent(new ShipChangedEvent(ship.getId(), null, ship));
+                    }
+                    return null;
+                });
+                job.imported += batch.size();
+            }
+            job.checkpoint = end;
+        } catch (DataAccessException e) {
+            job.fail(e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+        }
+        batch.clear();
+    }
+
+    private static void await(Future<?> stage) {
+        try {
+            stage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads the header line and maps its columns; the header is not counted as an imported line.
+     */
+    private static Parser csvParser(LineReader reader, Import job) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing CSV header");
+        }
+        job.lineNumber++;
+        List<String> columns = splitCsv(header);
+        int[] indexes = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = columns.indexOf(CSV_COLUMNS.get(i));
+            if (indexes[i] < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing CSV column " + CSV_COLUMNS.get(i));
+            }
+        }
+        return line -> {
+            List<String> fields = splitCsv(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " fields");
+            }
+            String shipType = nullIfEmpty(fields.get(indexes[2]));
+            String prodDate = nullIfEmpty(fields.get(indexes[3]));
+            String isUsed = nullIfEmpty(fields.get(indexes[4]));
+            String speed = nullIfEmpty(fields.get(indexes[5]));
+            String crewSize = nullIfEmpty(fields.get(indexes[6]));
+            if (isUsed != null && !isUsed.equals("true") && !isUsed.equals("false")) {
+                throw new IllegalArgumentException("Not a boolean: " + isUsed);
+            }
+            Ship ship = new Ship();
+            ship.setName(nullIfEmpty(fields.get(indexes[0])));
+            ship.setPlanet(nullIfEmpty(fields.get(indexes[1])));
+            ship.setShipType(shipType == null ? null : ShipType.valueOf(shipType));
+            ship.setProdDate(prodDate == null ? null : new Date(Long.parseLong(prodDate)));
+            ship.setUsed(isUsed == null ? null : Boolean.valueOf(isUsed));
+            ship.setSpeed(speed == null ? null : Double.valueOf(speed));
+            ship.setCrewSize(crewSize == null ? null : Integer.valueOf(crewSize));
+            return ship;
+        };
+    }
+
+    /**
+     * Splits an RFC 4180 record; quoted fields may contain separators and doubled quotes, but not line breaks.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String nullIfEmpty(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private interface Parser {
+        Ship parse(String line) throws IOException;
+    }
+
+    /**
+     * A line on its way through the stages. Once rejected it carries the error instead of a ship and the
+     * remaining stages pass it on untouched.
+     */
+    private static final class Item {
+        final long lineNumber;
+        final long end;
+        final boolean last;
+        Ship ship;
+        ShipBatchResult.Error error;
+
+        Item(long lineNumber, long end) {
+            this(lineNumber, end, false);
+        }
+
+        private Item(long lineNumber, long end, boolean last) {
+            this.lineNumber = lineNumber;
+            this.end = end;
+            this.last = last;
+        }
+
+        static Item end(long end) {
+            return new Item(0, end, true);
+        }
+
+        void reject(HttpStatus status, String message) {
+            ship = null;
+            error = new ShipBatchResult.Error((int) Math.min(lineNumber, Integer.MAX_VALUE), status.value(), message);
+        }
+    }
+
+    /**
+     * The state of one import. Counters are written by a single stage each and read once all stages finished.
+     */
+    private final class Import {
+        final BlockingQueue<Item> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        final BlockingQueue<Item> validated = new ArrayBlockingQueue<>(queueCapacity);
+        final BlockingQueue<Item> rated = new ArrayBlockingQueue<>(queueCapacity);
+        final List<ShipBatchResult.Error> errors = new ArrayList<>();
+        volatile String failure;
+        volatile long checkpoint;
+        long lineNumber;
+        long lines;
+        long imported;
+        long rejected;
+
+        Import(long offset) {
+            this.checkpoint = offset;
+        }
+
+        void fail(String message) {
+            if (failure == null) {
+                failure = message == null ? "Import failed" : message;
+            }
+        }
+
+        /**
+         * Applies {@code work} to every accepted item until the end marker, rejecting the items it throws
+         * {@code 400} for. After a failure the items are only passed on, so no stage blocks on a full queue.
+         */
+        void stage(BlockingQueue<Item> in, BlockingQueue<Item> out, Consumer<Item> work) {
+            Item item;
+            do {
+                item = take(in);
+                if (item.ship != null && failure == null) {
+                    try {
+                        work.accept(item);
+                    } catch (ResponseStatusException e) {
+                        item.reject(e.getStatus(), e.getReason() != null ? e.getReason()
+                                : "Invalid ship at line " + item.lineNumber);
+                    } catch (RuntimeException e) {
+                        item.reject(HttpStatus.BAD_REQUEST, "Invalid ship at line " + item.lineNumber);
+                    }
+                }
+                put(out, item);
+            } while (!item.last);
+        }
+
+        Item take(BlockingQueue<Item> queue) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            }
+        }
+
+        void put(BlockingQueue<Item> queue, Item item) {
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Reads UTF-8 lines straight from the bytes, so the offset of every line end is known exactly.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private byte[] line = new byte[256];
+        private int start;
+        private int limit;
+        private long position;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * The offset just past the last line read.
+         */
+        long position() {
+            return position;
+        }
+
+        /**
+         * Returns the next line without its {@code \n} or {@code \r\n}, or {@code null} at the end of the input.
+         */
+        String readLine() throws IOException {
+            int length = 0;
+            while (true) {
+                if (start == limit) {
+                    int read = in.read(buffer);
+                    if (read < 0) {
+                        return length == 0 ? null : decode(length);
+                    }
+                    start = 0;
+                    limit = read;
+                }
+                int end = start;
+                while (end < limit && buffer[end] != '\n') {
+                    end++;
+                }
+                int count = end - start;
+                if (length + count > MAX_LINE_BYTES) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Line at offset " + (position - length) + " exceeds " + MAX_LINE_BYTES + " bytes");
+                }
+                if (length + count > line.length) {
+                    line = Arrays.copyOf(line, Math.max(length + count, line.length * 2));
+                }
+                System.arraycopy(buffer, start, line, length, count);
+                length += count;
+                position += count;
+                if (end < limit) {
+                    start = end + 1;
+                    position++;
+                    return decode(length);
+                }
+                start = limit;
+            }
+        }
+
+        void skip(long bytes) throws IOException {
+            long buffered = Math.min(bytes, limit - start);
+            start += (int) buffered;
+            position += buffered;
+            long remaining = bytes - buffered;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset is past the end of the input");
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+                position += skipped;
+            }
+        }
+
+        private String decode(int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipListCacheStats;
+import com.space.model.ShipView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of ship list pages keyed by filter, order, page number and page size.
+ * <p>
+ * A committed write only evicts the pages whose filter matches the ship before or after the change; a
+ * ship that matches neither cannot appear on, or move ships across, any of the other pages. A page read
+ * while a write was in flight is not stored, so cached pages always match the committed table.
+ * {@link ShipModificationCounter} hands it the committed changes and clears it after writes it did not
+ * see.
+ */
+@Component
+public class ShipListCache {
+    private final int capacity;
+    private final Map<Key, List<ShipView>> pages;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public ShipListCache(@Value("${ship.cache.list.size:1024}") int capacity) {
+        this.capacity = capacity;
+        this.pages = new LinkedHashMap<Key, List<ShipView>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<ShipView>> eldest) {
+                if (size() > ShipListCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized List<ShipView> get(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        if (capacity == 0) {
+            return null;
+        }
+        List<ShipView> page = pages.get(new Key(filter, order, pageNumber, pageSize));
+        if (page == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return page;
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void put(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize,
+                                 List<ShipView> page, long generation) {
+        if (capacity > 0 && generation == this.generation) {
+            pages.put(new Key(filter, order, pageNumber, pageSize), Collections.unmodifiableList(page));
+        }
+    }
+
+    public synchronized void invalidate(Ship before, Ship after) {
+        generation++;
+        Iterator<Key> keys = pages.keySet().iterator();
+        while (keys.hasNext()) {
+            ShipFilter filter = keys.next().getFilter();
+            if ((before != null && filter.matches(before)) || (after != null && filter.matches(after))) {
+                keys.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += pages.size();
+        pages.clear();
+    }
+
+    public synchronized ShipListCacheStats snapshot() {
+        return new ShipListCacheStats(pages.size(), hits, misses, evictions, invalidations);
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Key {
+        private ShipFilter filter;
+        private ShipOrder order;
+        private int pageNumber;
+        private int pageSize;
+    }
+}
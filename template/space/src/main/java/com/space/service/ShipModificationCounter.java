@@ -0,0 +1,175 @@
+package com.space.service;
+
+import com.space.service.store.ShipColumnStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts the committed writes to the ship table in the {@code ship_modification} row, for the ETags of
+ * responses derived from the whole table such as lists and counts. Every transaction that changes ships
+ * bumps the row once, right before it commits, so the count changes together with the table for every
+ * instance of the application.
+ * <p>
+ * The counter also hands the committed changes to {@link ShipListCache}, {@link ShipCountCache} and
+ * {@link ShipColumnStore}, and remembers the count they are current with. {@link #getModifications()} only
+ * returns once they have caught up with the count it read: it waits for this instance's commits that are
+ * still being applied, and clears both caches when the count moved through writes they never saw, from
+ * another instance or from SQL. A response computed after reading the count is therefore never older
+ * than its tag. The column store cannot be cleared that way and still needs this application to be the
+ * only writer.
+ * <p>
+ * SQL that changes the ship table outside the application must bump the row as well:
+ * {@code UPDATE ship_modification SET modifications = modifications + 1 WHERE id = 1}.
+ */
+@Component
+public class ShipModificationCounter {
+    private static final String SELECT_SQL = "SELECT modifications FROM ship_modification WHERE id = 1";
+    private static final String UPDATE_SQL = "UPDATE ship_modification SET modifications = modifications + 1 WHERE id = 1";
+    private static final String INSERT_SQL = "INSERT INTO ship_modification (id, modifications) VALUES (1, 1)";
+    private static final long SETTLE_TIMEOUT_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShipListCache shipListCache;
+    private final ShipCountCache shipCountCache;
+    private final ShipColumnStore shipColumnStore;
+    private long applied;
+    private int pending;
+
+    @Autowired
+    public ShipModificationCounter(JdbcTemplate jdbcTemplate, ShipListCache shipListCache,
+                                   ShipCountCache shipCountCache, ShipColumnStore shipColumnStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shipListCache = shipListCache;
+        this.shipCountCache = shipCountCache;
+        this.shipColumnStore = shipColumnStore;
+    }
+
+    public long getModifications() {
+        List<Long> rows = jdbcTemplate.queryForList(SELECT_SQL, Long.class);
+        long modifications = rows.isEmpty() ? 0 : rows.get(0);
+        synchronized (this) {
+            if (modifications > applied) {
+                awaitPending(modifications);
+                if (modifications > applied) {
+                    shipListCache.clear();
+                    shipCountCache.invalidate();
+                    applied = modifications;
+                }
+            }
+        }
+        return modifications;
+    }
+
+    /**
+     * Runs inside the writing transaction, so the bump commits with the write; the changes of the
+     * transaction are applied once it has committed.
+     */
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onShipChanged(ShipChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            begin();
+            try {
+                increment();
+                apply(Collections.singletonList(event));
+            } finally {
+                settle(0);
+            }
+            return;
+        }
+        List<ShipChangedEvent> bound = (List<ShipChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            bound.add(event);
+            return;
+        }
+        List<ShipChangedEvent> changes = new ArrayList<>();
+        changes.add(event);
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            private boolean begun;
+            private long modifications;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                begin();
+                begun = true;
+                modifications = increment();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(ShipModificationCounter.this);
+                if (!begun) {
+                    return;
+                }
+                boolean committed = status == TransactionSynchronization.STATUS_COMMITTED;
+                try {
+                    if (committed) {
+                        apply(changes);
+                    }
+                } finally {
+                    settle(committed ? modifications : 0);
+                }
+            }
+        });
+    }
+
+    private long increment() {
+        if (jdbcTemplate.update(UPDATE_SQL) == 0) {
+            jdbcTemplate.update(INSERT_SQL);
+            return 1;
+        }
+        return jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+    }
+
+    private void apply(List<ShipChangedEvent> events) {
+        for (ShipChangedEvent event : events) {
+            shipListCache.invalidate(event.getPrevious(), event.getShip());
+            if (shipColumnStore.isEnabled()) {
+                shipColumnStore.apply(event);
+            }
+        }
+        shipCountCache.invalidate();
+    }
+
+    private synchronized void begin() {
+        pending++;
+    }
+
+    /**
+     * Ends a write begun with {@link #begin()}. A committed count right after the applied one becomes the
+     * applied count; after a gap the next {@link #getModifications()} clears the caches instead.
+     */
+    private synchronized void settle(long modifications) {
+        pending--;
+        if (modifications == applied + 1) {
+            applied = modifications;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Gives writes whose bump may already be visible the time to apply their changes; a commit that takes
+     * longer than {@link #SETTLE_TIMEOUT_MILLIS} leaves the caches to be cleared.
+     */
+    private void awaitPending(long modifications) {
+        long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+        try {
+            for (long left = SETTLE_TIMEOUT_MILLIS; applied < modifications && pending > 0 && left > 0;
+                 left = deadline - System.currentTimeMillis()) {
+                wait(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
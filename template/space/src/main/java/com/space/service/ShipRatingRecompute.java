@@ -0,0 +1,175 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipRatingRecomputeStatus;
+import com.space.repository.ShipJdbcRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recomputes the stored rating of every ship with the current {@link ShipValidator#getRating} rule, in the
+ * background. Ships are read in id-ordered chunks, rated in parallel on the common fork/join pool, and only
+ * the changed ratings are written back, one batched UPDATE and one short transaction per chunk, so the
+ * service keeps serving requests during the run.
+ */
+@Component
+public class ShipRatingRecompute {
+    private static final int RATE_THRESHOLD = 256;
+
+    private final ShipJdbcRepository shipJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService shipRatingExecutor;
+    private final int chunkSize;
+
+    private volatile Progress progress;
+
+    public ShipRatingRecompute(ShipJdbcRepository shipJdbcRepository,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Qualifier("shipRatingExecutor") ExecutorService shipRatingExecutor,
+                               @Value("${ship.rating.chunk-size:5000}") int chunkSize) {
+        this.shipJdbcRepository = shipJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.shipRatingExecutor = shipRatingExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts a recomputation unless one is already running.
+     */
+    public synchronized ShipRatingRecomputeStatus start() {
+        if (progress != null && progress.running) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Rating recomputation is already running");
+        }
+        Progress started = new Progress();
+        progress = started;
+        shipRatingExecutor.execute(() -> run(started));
+        return started.toStatus();
+    }
+
+    /**
+     * Returns the progress of the running or the last recomputation, or {@code null} before the first one.
+     */
+    public ShipRatingRecomputeStatus getStatus() {
+        Progress current = progress;
+        return current == null ? null : current.toStatus();
+    }
+
+    private void run(Progress progress) {
+        try {
+            progress.total = shipJdbcRepository.count(new ShipFilter());
+            long afterId = 0;
+            List<Ship> chunk;
+            while (!(chunk = shipJdbcRepository.findChunk(afterId, chunkSize)).isEmpty()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Rating recomputation was interrupted");
+                }
+                Ship[] rated = new Ship[chunk.size()];
+                new RateTask(chunk, rated, 0, rated.length).invoke();
+                List<Ship> previous = new ArrayList<>();
+                List<Ship> changed = new ArrayList<>();
+                long skipped = 0;
+                for (int i = 0; i < rated.length; i++) {
+                    if (rated[i] == null) {
+                        skipped++;
+                    } else if (!rated[i].getRating().equals(chunk.get(i).getRating())) {
+                        previous.add(chunk.get(i));
+                        changed.add(rated[i]);
+                    }
+                }
+                progress.updated += changed.isEmpty() ? 0 : write(previous, changed);
+                progress.skipped += skipped;
+                progress.scanned += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+            progress.completed = true;
+        } catch (RuntimeException e) {
+            progress.failure = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        } finally {
+            progress.finishedNanos = System.nanoTime();
+            progress.running = false;
+        }
+    }
+
+    private int write(List<Ship> previous, List<Ship> changed) {
+        return transactionTemplate.execute(status -> {
+            int[] counts = shipJdbcRepository.updateRatings(changed);
+            int updated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    updated++;
+                    eventPublisher.publishEvent(new ShipChangedEvent(changed.get(i).getId(), previous.get(i), changed.get(i)));
+                }
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Fills {@code rated} with a copy of each ship carrying its recomputed rating, or {@code null} for a ship
+     * missing a rating input or produced outside the allowed years.
+     */
+    private static final class RateTask extends RecursiveAction {
+        private final List<Ship> ships;
+        private final Ship[] rated;
+        private final int from;
+        private final int to;
+
+        RateTask(List<Ship> ships, Ship[] rated, int from, int to) {
+            this.ships = ships;
+            this.rated = rated;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > RATE_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RateTask(ships, rated, from, middle), new RateTask(ships, rated, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Ship ship = ships.get(i);
+                if (ship.getProdDate() == null || ship.isUsed() == null || ship.getSpeed() == null
+                        || !ShipValidator.checkProdDate(ship.getProdDate())) {
+                    continue;
+                }
+                Ship copy = ShipServiceImpl.copyOf(ship);
+                copy.setRating(ShipValidator.getRating(ship));
+                rated[i] = copy;
+            }
+        }
+    }
+
+    private static final class Progress {
+        final long startedNanos = System.nanoTime();
+        volatile boolean running = true;
+        volatile boolean completed;
+        volatile String failure;
+        volatile long total;
+        volatile long scanned;
+        volatile long updated;
+        volatile long skipped;
+        volatile long finishedNanos;
+
+        ShipRatingRecomputeStatus toStatus() {
+            long elapsedNanos = (running ? System.nanoTime() : finishedNanos) - startedNanos;
+            return new ShipRatingRecomputeStatus(running, completed, failure, total, scanned, updated, skipped,
+                    elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : scanned * 1e9 / elapsedNanos);
+        }
+    }
+}
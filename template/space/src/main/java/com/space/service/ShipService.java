@@ -1,27 +1,42 @@
 package com.space.service;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.space.controller.ShipOrder;
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipHistograms;
+import com.space.model.ShipImportResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipRatingRecomputeStatus;
+import com.space.model.ShipStats;
 import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.model.VersionedShipView;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ShipService {
-    List<Ship> getShipsList(String name,
-                            String planet,
-                            ShipType shipType,
-                            Long after,
-                            Long before,
-                            Boolean isUsed,
-                            Double minSpeed,
-                            Double maxSpeed,
-                            Integer minCrewSize,
-                            Integer maxCrewSize,
-                            Double minRating,
-                            Double maxRating,
-                            ShipOrder order,
-                            Integer pageNumber,
-                            Integer pageSize);
+    List<ShipView> getShipsList(String name,
+                                String planet,
+                                ShipType shipType,
+                                Long after,
+                                Long before,
+                                Boolean isUsed,
+                                Double minSpeed,
+                                Double maxSpeed,
+                                Integer minCrewSize,
+                                Integer maxCrewSize,
+                                Double minRating,
+                                Double maxRating,
+                                ShipOrder order,
+                                Integer pageNumber,
+                                Integer pageSize);
+
+    List<ShipView> getShipsList(ShipFilter filter, ShipOrder order, ShipCursor cursor, Integer pageSize);
 
     Integer getShipsCount(String name,
                           String planet,
@@ -36,10 +51,72 @@ public interface ShipService {
                           Double minRating,
                           Double maxRating);
 
+    /**
+     * Passes every ship matching {@code filter} to {@code consumer} in {@code order}, straight from a
+     * database cursor, so the result is never held in memory.
+     */
+    void exportShips(ShipFilter filter, ShipOrder order, Consumer<ShipView> consumer);
+
+    ShipStats getShipsStats();
+
+    /**
+     * Buckets the speed, rating, crew size and production year of every ship matching {@code filter} by the
+     * given widths, all four in one pass.
+     */
+    ShipHistograms getShipsHistograms(ShipFilter filter, double speedWidth, double ratingWidth,
+                                      int crewSizeWidth, int yearWidth);
+
+    /**
+     * With {@code facetPlanets} set, the page also carries the facets of the whole filter, keeping that
+     * many of the most common planets.
+     */
+    ShipPage getShipsPage(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize,
+                          Integer facetPlanets);
+
     Ship createShip(Ship requestBody);
 
+    /**
+     * Validates and rates every ship like {@link #createShip(Ship)}, then inserts the valid ones in JDBC batches.
+     * Invalid items, and items an iterator fails to produce, are reported by position instead of failing the call.
+     * A batch the database rejects for one row is retried row by row, so only the rejected rows are reported.
+     */
+    ShipBatchResult createShips(Iterator<Ship> ships);
+
+    /**
+     * Imports ships through {@link ShipImportPipeline}, resuming {@code offset} bytes into {@code in}.
+     */
+    ShipImportResult importShips(InputStream in, ShipImportFormat format, ObjectReader shipReader, long offset)
+            throws IOException;
+
+    /**
+     * Like {@link #importShips(InputStream, ShipImportFormat, ObjectReader, long)} for a file under
+     * {@code ship.import.directory}.
+     */
+    ShipImportResult importShips(String path, ShipImportFormat format, ObjectReader shipReader, long offset)
+            throws IOException;
+
+    /**
+     * Starts recomputing the rating of every stored ship in the background, see {@link ShipRatingRecompute}.
+     */
+    ShipRatingRecomputeStatus recomputeRatings();
+
+    ShipRatingRecomputeStatus getRatingRecomputeStatus();
+
     Ship getShip(Long id);
 
+    VersionedShipView getShipView(Long id);
+
+    /**
+     * Returns the version of a ship without loading it.
+     */
+    long getShipVersion(Long id);
+
+    /**
+     * Returns the number of committed writes to the ship table, which versions the responses derived from
+     * the whole table, such as lists and counts. Those computed after it returns are at least as new.
+     */
+    long getShipsModifications();
+
     Ship updateShip(Long id, Ship request);
 
     void deleteShip(Long id);
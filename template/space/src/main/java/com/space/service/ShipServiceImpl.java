@@ -1,175 +1,129 @@
 package com.space.service;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.space.controller.ShipOrder;
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipHistograms;
+import com.space.model.ShipImportResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipRatingRecomputeStatus;
+import com.space.model.ShipStats;
 import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.model.VersionedShipView;
+import com.space.repository.ShipJdbcRepository;
 import com.space.repository.ShipRepository;
+import com.space.service.store.ShipColumnStore;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.GregorianCalendar;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 @Service
 public class ShipServiceImpl implements ShipService {
+    private static final int INSERT_BATCH_SIZE = 500;
+
     @Autowired
     private ShipRepository shipRepository;
 
+    @Autowired
+    private ShipJdbcRepository shipJdbcRepository;
 
+    @Autowired
+    private ShipCountCache shipCountCache;
 
-    private Specification<Ship> filterByName(String name) {
-        return (root, query, criteriaBuilder) -> name == null ? null :
-                criteriaBuilder.like(root.get("name"), "%" + name + "%");
-    }
-
-    private Specification<Ship> filterByPlanet(String planet) {
-        return (root, query, criteriaBuilder) -> planet == null ? null :
-                criteriaBuilder.like(root.get("planet"), "%" + planet + "%");
-    }
+    @Autowired
+    private ShipListCache shipListCache;
 
-    private Specification<Ship> filterByShipType(ShipType shipType) {
-        return (root, query, criteriaBuilder) -> shipType == null ? null :
-                criteriaBuilder.equal(root.get("shipType"), shipType);
-    }
+    @Autowired
+    private ShipColumnStore shipColumnStore;
 
-    private Specification<Ship> filterByProdDate(Long after, Long before) {
-        return (root, query, criteriaBuilder) -> {
-            if(after == null && before == null) {
-                return null;
-            }
-            if (after == null) {
-                Date beforeDate = new Date(before);
-                return criteriaBuilder.lessThanOrEqualTo(root.get("prodDate"), beforeDate);
-            }
-            if (before == null) {
-                Date afterDate = new Date(after);
-                return criteriaBuilder.greaterThanOrEqualTo(root.get("prodDate"), afterDate);
-            }
-            Date afterDate = new Date(after);
-            Date beforeDate = new Date(before);
-            return criteriaBuilder.between(root.get("prodDate"), afterDate, beforeDate);
-        };
-    }
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    private Specification<Ship> filterByUsing(Boolean isUsed) {
-        return (root, query, criteriaBuilder) -> isUsed == null ? null :
-                isUsed ? criteriaBuilder.isTrue(root.get("isUsed")) : criteriaBuilder.isFalse(root.get("isUsed"));
-    }
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    private Specification<Ship> filterBySpeed(Double minSpeed, Double maxSpeed) {
-        return (root, query, criteriaBuilder) -> {
-            if (minSpeed == null && maxSpeed == null) {
-                return null;
-            }
-            if (minSpeed == null) {
-                return criteriaBuilder.lessThanOrEqualTo(root.get("speed"), maxSpeed);
-            }
-            if (maxSpeed == null) {
-                return criteriaBuilder.greaterThanOrEqualTo(root.get("speed"), minSpeed);
-            }
-            return criteriaBuilder.between(root.get("speed"), minSpeed, maxSpeed);
-        };
-    }
+    @Autowired
+    private ExecutorService shipQueryExecutor;
 
-    private Specification<Ship> filterByCrewSize(Integer minCrewSize, Integer maxCrewSize) {
-        return (root, query, criteriaBuilder) -> {
-            if (minCrewSize == null && maxCrewSize == null) {
-                return null;
-            }
-            if (minCrewSize == null) {
-                return criteriaBuilder.lessThanOrEqualTo(root.get("crewSize"), maxCrewSize);
-            }
-            if (maxCrewSize == null) {
-                return criteriaBuilder.greaterThanOrEqualTo(root.get("crewSize"), minCrewSize);
-            }
-            return criteriaBuilder.between(root.get("crewSize"), minCrewSize, maxCrewSize);
-        };
-    }
+    @Autowired
+    private ShipImportPipeline shipImportPipeline;
 
-    private Specification<Ship> filterByRating(Double minRating, Double maxRating) {
-        return (root, query, criteriaBuilder) -> {
-            if (minRating == null && maxRating == null) {
-                return null;
-            }
-            if (minRating == null) {
-                return criteriaBuilder.lessThanOrEqualTo(root.get("rating"), maxRating);
-            }
-            if (maxRating == null) {
-                return criteriaBuilder.greaterThanOrEqualTo(root.get("rating"), minRating);
-            }
-            return criteriaBuilder.between(root.get("rating"), minRating, maxRating);
-        };
-    }
+    @Autowired
+    private ShipStatsCollector shipStatsCollector;
 
-    private boolean isParamTrue(Ship ship) {
-        if (ship.getName() == null || ship.getName().equals("")
-                || ship.getName().length() > 50 || ship.getPlanet() == null
-                || ship.getPlanet().equals("")|| ship.getPlanet().length() > 50
-                || ship.getProdDate() == null
-                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() < 2800
-                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() > 3019
-                || ship.getProdDate().getTime() < 0 || ship. getSpeed() == null
-                || ship.getSpeed() < 0.01 || ship.getSpeed() > 0.99
-                || ship.getCrewSize() == null
-                || ship.getCrewSize() < 1 || ship.getCrewSize() > 9999) {
+    @Autowired
+    private ShipRatingRecompute shipRatingRecompute;
 
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
-        }
-        return true;
-    }
+    @Autowired
+    private ShipModificationCounter shipModificationCounter;
 
-    private boolean checkProdDate(Date date) {
-        Calendar calendar = new GregorianCalendar();
-        calendar.setTime(date);
-        return  calendar.get(Calendar.YEAR) >= 2800 && calendar.get(Calendar.YEAR) <= 3019;
+    @Override
+    public List<ShipView> getShipsList(String name,
+                                       String planet,
+                                       ShipType shipType,
+                                       Long after,
+                                       Long before,
+                                       Boolean isUsed,
+                                       Double minSpeed,
+                                       Double maxSpeed,
+                                       Integer minCrewSize,
+                                       Integer maxCrewSize,
+                                       Double minRating,
+                                       Double maxRating,
+                                       ShipOrder order,
+                                       Integer pageNumber,
+                                       Integer pageSize) {
+        return getShipsList(new ShipFilter(name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating), order, pageNumber, pageSize);
     }
 
-    private Double getRating(Ship ship) {
-        double k = ship.isUsed() ? 0.5 : 1;
-        LocalDate localDate = ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        if (localDate.getYear() > 3019) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
-        double rating = (80 * ship.getSpeed() * k / (3019 - localDate.getYear()+1));
-        return Math.round(rating*100.0)/100.0;
+    private List<ShipView> getShipsList(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize) {
+        if (pageNumber < 0 || pageSize < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        List<ShipView> cached = shipListCache.get(filter, order, pageNumber, pageSize);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = shipListCache.getGeneration();
+        List<ShipView> ships = shipColumnStore.isEnabled()
+                ? shipColumnStore.list(filter, order, null, (long) pageNumber * pageSize, pageSize)
+                : shipJdbcRepository.findSlice(filter, order, null, (long) pageNumber * pageSize, pageSize);
+        shipListCache.put(filter, order, pageNumber, pageSize, ships, generation);
+        return ships;
     }
 
-    @Transactional
     @Override
-    public List<Ship> getShipsList(String name,
-                                   String planet,
-                                   ShipType shipType,
-                                   Long after,
-                                   Long before,
-                                   Boolean isUsed,
-                                   Double minSpeed,
-                                   Double maxSpeed,
-                                   Integer minCrewSize,
-                                   Integer maxCrewSize,
-                                   Double minRating,
-                                   Double maxRating,
-                                   ShipOrder order,
-                                   Integer pageNumber,
-                                   Integer pageSize) {
-        Specification<Ship> specification = filterByName(name).and(filterByPlanet(planet)).and(filterByShipType(shipType)).
-                and(filterByProdDate(after, before)).and(filterByUsing(isUsed)).and(filterBySpeed(minSpeed, maxSpeed)).
-                and(filterByCrewSize(minCrewSize, maxCrewSize)).and(filterByRating(minRating, maxRating));
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName()));
-        return shipRepository.findAll(specification,pageable).getContent();
+    public List<ShipView> getShipsList(ShipFilter filter, ShipOrder order, ShipCursor cursor, Integer pageSize) {
+        if (pageSize < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        if (shipColumnStore.isEnabled()) {
+            return shipColumnStore.list(filter, order, cursor, 0, pageSize);
+        }
+        return shipJdbcRepository.findSlice(filter, order, cursor, 0, pageSize);
     }
 
-    @Transactional
     @Override
     public Integer getShipsCount(String name,
                                  String planet,
@@ -183,10 +137,91 @@ public class ShipServiceImpl implements ShipService {
                                  Integer maxCrewSize,
                                  Double minRating,
                                  Double maxRating) {
-        Specification<Ship> specification = filterByName(name).and(filterByPlanet(planet)).and(filterByShipType(shipType)).
-                and(filterByProdDate(after, before)).and(filterByUsing(isUsed)).and(filterBySpeed(minSpeed, maxSpeed)).
-                and(filterByCrewSize(minCrewSize, maxCrewSize)).and(filterByRating(minRating, maxRating));
-        return shipRepository.findAll(specification).size();
+        return getShipsCount(new ShipFilter(name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating));
+    }
+
+    private Integer getShipsCount(ShipFilter filter) {
+        if (shipColumnStore.isEnabled()) {
+            return shipColumnStore.count(filter);
+        }
+        Integer cached = shipCountCache.get(filter);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = shipCountCache.getGeneration();
+        Integer count = (int) shipJdbcRepository.count(filter);
+        shipCountCache.put(filter, count, generation);
+        return count;
+    }
+
+    @Override
+    public void exportShips(ShipFilter filter, ShipOrder order, Consumer<ShipView> consumer) {
+        shipJdbcRepository.scan(filter, order, consumer);
+    }
+
+    @Override
+    public ShipStats getShipsStats() {
+        return shipStatsCollector.getStats();
+    }
+
+    @Override
+    public ShipHistograms getShipsHistograms(ShipFilter filter, double speedWidth, double ratingWidth,
+                                             int crewSizeWidth, int yearWidth) {
+        ShipHistogramCounter counter;
+        try {
+            counter = new ShipHistogramCounter(speedWidth, ratingWidth, crewSizeWidth, yearWidth);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (shipColumnStore.isEnabled()) {
+            shipColumnStore.histograms(filter, counter);
+        } else {
+            shipJdbcRepository.histograms(filter, counter);
+        }
+        return counter.toHistograms();
+    }
+
+    /**
+     * Not transactional on purpose: the count runs on {@code shipQueryExecutor} while the page is read
+     * here, each in its own transaction on its own connection. With facets the count comes from the same
+     * pass that counts them.
+     */
+    @Override
+    public ShipPage getShipsPage(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize,
+                                 Integer facetPlanets) {
+        if (pageNumber < 0 || pageSize < 1 || (facetPlanets != null && facetPlanets < 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        }
+        Future<ShipFacetCounter> facets = facetPlanets == null ? null
+                : shipQueryExecutor.submit(() -> getShipsFacets(filter));
+        Future<Integer> total = facets != null ? null : shipQueryExecutor.submit(() -> getShipsCount(filter));
+        try {
+            List<ShipView> items = getShipsList(filter, order, pageNumber, pageSize);
+            ShipFacetCounter counter = facets == null ? null : facets.get();
+            Integer count = counter == null ? total.get() : (int) counter.getTotal();
+            return new ShipPage(items, count, (pageNumber + 1L) * pageSize < count,
+                    counter == null ? null : counter.toFacets(facetPlanets));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (facets != null) {
+                facets.cancel(true);
+            }
+            if (total != null) {
+                total.cancel(true);
+            }
+        }
+    }
+
+    private ShipFacetCounter getShipsFacets(ShipFilter filter) {
+        return shipColumnStore.isEnabled() ? shipColumnStore.facets(filter) : shipJdbcRepository.facets(filter);
     }
 
     @Transactional
@@ -195,8 +230,87 @@ public class ShipServiceImpl implements ShipService {
         if (ship == null) {
             return null;
         }
+        Ship newShip = newShip(ship);
+        shipRepository.save(newShip);
+        eventPublisher.publishEvent(new ShipChangedEvent(newShip.getId(), null, newShip));
+        return newShip;
+    }
+
+    @Override
+    public ShipBatchResult createShips(Iterator<Ship> ships) {
+        ShipBatchResult result = new ShipBatchResult();
+        List<Ship> chunk = new ArrayList<>(INSERT_BATCH_SIZE);
+        List<Integer> chunkIndexes = new ArrayList<>(INSERT_BATCH_SIZE);
+        int index = 0;
+        while (ships.hasNext()) {
+            try {
+                Ship ship = ships.next();
+                if (ship == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+                chunk.add(newShip(ship));
+                chunkIndexes.add(index);
+            } catch (ResponseStatusException e) {
+                result.getErrors().add(new ShipBatchResult.Error(index, e.getStatus().value(),
+                        e.getReason() != null ? e.getReason() : e.getStatus().getReasonPhrase()));
+            }
+            index++;
+            if (chunk.size() == INSERT_BATCH_SIZE) {
+                insertChunk(chunk, chunkIndexes, result);
+            }
+        }
+        insertChunk(chunk, chunkIndexes, result);
+        result.setReceived(index);
+        result.getErrors().sort(Comparator.comparingInt(ShipBatchResult.Error::getIndex));
+        return result;
+    }
+
+    private void insertChunk(List<Ship> chunk, List<Integer> chunkIndexes, ShipBatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            insert(chunk);
+            for (Ship ship : chunk) {
+                result.getIds().add(ship.getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // One rejected row rolls back the whole chunk; insert it row by row so only that row fails.
+            for (int i = 0; i < chunk.size(); i++) {
+                Ship ship = chunk.get(i);
+                ship.setId(null);
+                try {
+                    insert(Collections.singletonList(ship));
+                    result.getIds().add(ship.getId());
+                } catch (DataAccessException rowFailure) {
+                    addInsertError(result, chunkIndexes.get(i), rowFailure);
+                }
+            }
+        } catch (DataAccessException e) {
+            for (Integer index : chunkIndexes) {
+                addInsertError(result, index, e);
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private void insert(List<Ship> ships) {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            shipJdbcRepository.insertAll(ships);
+            for (Ship ship : ships) {
+                eventPublisher.publishEvent(new ShipChangedEvent(ship.getId(), null, ship));
+            }
+            return null;
+        });
+    }
+
+    private static void addInsertError(ShipBatchResult result, int index, DataAccessException e) {
+        result.getErrors().add(new ShipBatchResult.Error(index,
+                HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMostSpecificCause().getMessage()));
+    }
+
+    private Ship newShip(Ship ship) {
         Ship newShip = new Ship();
-        if (isParamTrue(ship)) {
+        if (ShipValidator.isParamTrue(ship)) {
             newShip.setName(ship.getName());
             newShip.setPlanet(ship.getPlanet());
             if (ship.isUsed() == null) {
@@ -209,28 +323,75 @@ public class ShipServiceImpl implements ShipService {
             newShip.setSpeed(ship.getSpeed());
             newShip.setCrewSize(ship.getCrewSize());
         }
-        Double rating = getRating(newShip);
+        Double rating = ShipValidator.getRating(newShip);
         newShip.setRating(rating);
-        shipRepository.save(newShip);
         return newShip;
     }
 
+    @Override
+    public ShipImportResult importShips(InputStream in, ShipImportFormat format, ObjectReader shipReader, long offset)
+            throws IOException {
+        return shipImportPipeline.importStream(in, format, shipReader, offset);
+    }
+
+    @Override
+    public ShipImportResult importShips(String path, ShipImportFormat format, ObjectReader shipReader, long offset)
+            throws IOException {
+        return shipImportPipeline.importFile(path, format, shipReader, offset);
+    }
+
+    @Override
+    public ShipRatingRecomputeStatus recomputeRatings() {
+        return shipRatingRecompute.start();
+    }
+
+    @Override
+    public ShipRatingRecomputeStatus getRatingRecomputeStatus() {
+        ShipRatingRecomputeStatus status = shipRatingRecompute.getStatus();
+        if (status == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        return status;
+    }
+
     @Transactional
     @Override
     public Ship getShip(Long id) {
         if (id <= 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
-        if (!shipRepository.findById(id).isPresent()) {
-            throw  new ResponseStatusException(HttpStatus.NOT_FOUND);
-        }
+        return shipRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Not transactional on purpose: the projection query needs no persistence context.
+     */
+    @Override
+    public VersionedShipView getShipView(Long id) {
+        if (id <= 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        return shipJdbcRepository.findViewById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @Override
+    public long getShipVersion(Long id) {
+        if (id <= 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        return shipJdbcRepository.findVersionById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
 
-        return shipRepository.findById(id).get();
+    @Override
+    public long getShipsModifications() {
+        return shipModificationCounter.getModifications();
     }
 
+    /**
+     * Hibernate bumps the version on flush and fails it when a concurrent write already did, which is
+     * reported as a conflict rather than overwriting that write.
+     */
     @Transactional
     @Override
 
     public Ship updateShip(Long id, Ship ship) {
         Ship newShip = getShip(id);
+        Ship previous = copyOf(newShip);
 
         if (ship.getName() == null &&
                 ship.getPlanet() == null &&
@@ -255,7 +416,7 @@ public class ShipServiceImpl implements ShipService {
 
         if (ship.getProdDate() != null) {
             if (ship.getProdDate().getTime() > 0
-                    && checkProdDate(ship.getProdDate()))
+                    && ShipValidator.checkProdDate(ship.getProdDate()))
                 newShip.setProdDate(ship.getProdDate());
             else throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
         }
@@ -273,9 +434,14 @@ public class ShipServiceImpl implements ShipService {
                 newShip.setCrewSize(ship.getCrewSize());
             else throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
 
-        Double rating = getRating(newShip);
+        Double rating = ShipValidator.getRating(newShip);
         newShip.setRating(rating);
-        shipRepository.saveAndFlush(newShip);
+        try {
+            shipRepository.saveAndFlush(newShip);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT);
+        }
+        eventPublisher.publishEvent(new ShipChangedEvent(id, previous, newShip));
 
         return newShip;
     }
@@ -284,8 +450,14 @@ public class ShipServiceImpl implements ShipService {
     @Override
     public void deleteShip(Long id) {
         if (id <= 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
-        if (!shipRepository.existsById(id)) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        Ship previous = copyOf(getShip(id));
         shipRepository.deleteById(id);
+        eventPublisher.publishEvent(new ShipChangedEvent(id, previous, null));
+    }
+
+    static Ship copyOf(Ship ship) {
+        return new Ship(ship.getId(), ship.getName(), ship.getPlanet(), ship.getShipType(), ship.getProdDate(),
+                ship.isUsed(), ship.getSpeed(), ship.getCrewSize(), ship.getRating(), ship.getVersion());
     }
 
 
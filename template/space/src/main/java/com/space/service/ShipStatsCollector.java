@@ -0,0 +1,113 @@
+package com.space.service;
+
+import com.space.model.ShipStats;
+import com.space.model.ShipType;
+import com.space.repository.ShipJdbcRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the {@link ShipStats} of the whole fleet current from {@link ShipChangedEvent}s, so reading them
+ * never touches the table. Every {@code ship.stats.reconcile-interval} milliseconds, and right after a
+ * change removes a minimum or maximum, the totals are recomputed from the table in one grouped query. That
+ * also corrects writes made behind the application's back and changes that raced with the previous
+ * recomputation. With an interval of 0 every read runs the query instead.
+ */
+@Component
+public class ShipStatsCollector {
+    private final ShipJdbcRepository shipJdbcRepository;
+    private final ScheduledExecutorService shipStatsScheduler;
+    private final long reconcileInterval;
+    private final AtomicBoolean reconcilePending = new AtomicBoolean();
+    private volatile ShipStatsTotals totals;
+
+    public ShipStatsCollector(ShipJdbcRepository shipJdbcRepository,
+                              @Qualifier("shipStatsScheduler") ScheduledExecutorService shipStatsScheduler,
+                              @Value("${ship.stats.reconcile-interval:60000}") long reconcileInterval) {
+        this.shipJdbcRepository = shipJdbcRepository;
+        this.shipStatsScheduler = shipStatsScheduler;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (reconcileInterval > 0) {
+            shipStatsScheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public ShipStats getStats() {
+        if (reconcileInterval <= 0) {
+            return load().snapshot();
+        }
+        ShipStatsTotals current = totals;
+        return (current != null ? current : reconcile()).snapshot();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipChanged(ShipChangedEvent event) {
+        ShipStatsTotals current = totals;
+        if (current == null) {
+            return;
+        }
+        if (event.getPrevious() != null && !current.remove(event.getPrevious())
+                && reconcilePending.compareAndSet(false, true)) {
+            shipStatsScheduler.execute(this::reconcileQuietly);
+        }
+        if (event.getShip() != null) {
+            current.add(event.getShip());
+        }
+    }
+
+    synchronized ShipStatsTotals reconcile() {
+        reconcilePending.set(false);
+        ShipStatsTotals fresh = load();
+        totals = fresh;
+        return fresh;
+    }
+
+    /**
+     * A failed recomputation keeps the current totals; the next scheduled one retries.
+     */
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            reconcilePending.set(false);
+        }
+    }
+
+    private ShipStatsTotals load() {
+        ShipStatsTotals fresh = new ShipStatsTotals(System.currentTimeMillis());
+        shipJdbcRepository.aggregate(resultSet -> {
+            String shipType = resultSet.getString("shipType");
+            Boolean isUsed = resultSet.getBoolean("isUsed");
+            if (resultSet.wasNull()) {
+                isUsed = null;
+            }
+            fresh.addGroup(shipType == null ? null : ShipType.valueOf(shipType), resultSet.getString("planet"),
+                    isUsed, resultSet.getLong("ships"));
+            addMetric(fresh.getSpeed(), resultSet, "Speed");
+            addMetric(fresh.getCrewSize(), resultSet, "CrewSize");
+            addMetric(fresh.getRating(), resultSet, "Rating");
+        });
+        return fresh;
+    }
+
+    private static void addMetric(ShipStatsTotals.Metric metric, ResultSet resultSet, String column) throws SQLException {
+        long count = resultSet.getLong("count" + column);
+        if (count > 0) {
+            metric.add(count, resultSet.getDouble("sum" + column),
+                    resultSet.getDouble("min" + column), resultSet.getDouble("max" + column));
+        }
+    }
+}
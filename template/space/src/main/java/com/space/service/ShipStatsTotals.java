@@ -0,0 +1,169 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipStats;
+import com.space.model.ShipType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free running totals behind {@link ShipStats}: adders for the counts and sums, and accumulators for
+ * the minimums and maximums. Removing a ship can't shrink a minimum or maximum, so {@link #remove(Ship)}
+ * reports when it removed one and only a recomputation from the table restores it.
+ * <p>
+ * The snapshot is rebuilt only when something changed since the previous one.
+ */
+final class ShipStatsTotals {
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+
+    private final long reconciledAt;
+    private final LongAdder ships = new LongAdder();
+    private final LongAdder[] shipTypes = new LongAdder[SHIP_TYPES.length];
+    private final ConcurrentMap<String, LongAdder> planets = new ConcurrentHashMap<>();
+    private final LongAdder used = new LongAdder();
+    private final LongAdder notUsed = new LongAdder();
+    private final Metric speed = new Metric();
+    private final Metric crewSize = new Metric();
+    private final Metric rating = new Metric();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    ShipStatsTotals(long reconciledAt) {
+        this.reconciledAt = reconciledAt;
+        for (int i = 0; i < shipTypes.length; i++) {
+            shipTypes[i] = new LongAdder();
+        }
+    }
+
+    void add(Ship ship) {
+        addGroup(ship.getShipType(), ship.getPlanet(), ship.isUsed(), 1);
+        speed.add(ship.getSpeed());
+        crewSize.add(ship.getCrewSize() == null ? null : ship.getCrewSize().doubleValue());
+        rating.add(ship.getRating());
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns {@code false} when the ship held a minimum or maximum, which is then stale.
+     */
+    boolean remove(Ship ship) {
+        addGroup(ship.getShipType(), ship.getPlanet(), ship.isUsed(), -1);
+        boolean exact = speed.remove(ship.getSpeed());
+        exact &= crewSize.remove(ship.getCrewSize() == null ? null : ship.getCrewSize().doubleValue());
+        exact &= rating.remove(ship.getRating());
+        version.incrementAndGet();
+        return exact;
+    }
+
+    /**
+     * Adds {@code count} ships sharing a ship type, planet and {@code isUsed}; the metrics are added separately.
+     */
+    void addGroup(ShipType shipType, String planet, Boolean isUsed, long count) {
+        ships.add(count);
+        if (shipType != null) {
+            shipTypes[shipType.ordinal()].add(count);
+        }
+        if (planet != null) {
+            planets.computeIfAbsent(planet, key -> new LongAdder()).add(count);
+        }
+        if (isUsed != null) {
+            (isUsed ? used : notUsed).add(count);
+        }
+    }
+
+    Metric getSpeed() {
+        return speed;
+    }
+
+    Metric getCrewSize() {
+        return crewSize;
+    }
+
+    Metric getRating() {
+        return rating;
+    }
+
+    ShipStats snapshot() {
+        long current = version.get();
+        Snapshot cached = snapshot;
+        if (cached != null && cached.version == current) {
+            return cached.stats;
+        }
+        Map<ShipType, Long> byShipType = new EnumMap<>(ShipType.class);
+        for (ShipType shipType : SHIP_TYPES) {
+            byShipType.put(shipType, shipTypes[shipType.ordinal()].sum());
+        }
+        Map<String, Long> byPlanet = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> planet : planets.entrySet()) {
+            long count = planet.getValue().sum();
+            if (count > 0) {
+                byPlanet.put(planet.getKey(), count);
+            }
+        }
+        ShipStats stats = new ShipStats(ships.sum(), byShipType, byPlanet, used.sum(), notUsed.sum(),
+                speed.summary(), crewSize.summary(), rating.summary(), reconciledAt);
+        snapshot = new Snapshot(current, stats);
+        return stats;
+    }
+
+    /**
+     * Count, sum and bounds of one column over the ships that have it. The bounds are kept as longs that
+     * sort like the doubles, see {@link SortableDoubles}.
+     */
+    static final class Metric {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void add(Double value) {
+            if (value != null) {
+                add(1, value, value, value);
+            }
+        }
+
+        void add(long count, double sum, double min, double max) {
+            this.count.add(count);
+            this.sum.add(sum);
+            this.min.accumulate(SortableDoubles.encode(min));
+            this.max.accumulate(SortableDoubles.encode(max));
+        }
+
+        boolean remove(Double value) {
+            if (value == null) {
+                return true;
+            }
+            count.decrement();
+            sum.add(-value);
+            long key = SortableDoubles.encode(value);
+            return key > min.get() && key < max.get();
+        }
+
+        ShipStats.Summary summary() {
+            long count = this.count.sum();
+            if (count <= 0) {
+                return new ShipStats.Summary(null, null, null);
+            }
+            return new ShipStats.Summary(SortableDoubles.decode(min.get()), SortableDoubles.decode(max.get()),
+                    sum.sum() / count);
+        }
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final ShipStats stats;
+
+        Snapshot(long version, ShipStats stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+}
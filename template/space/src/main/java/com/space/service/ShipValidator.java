@@ -0,0 +1,90 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+/**
+ * Validation and rating rules for new and updated ships, shared by the service, the import pipeline and
+ * the rating recomputation. Production dates are compared as epoch millis against the starts of the years
+ * 2800-3020, computed once in the default time zone, so validating and rating a ship allocates nothing.
+ */
+final class ShipValidator {
+    static final int MIN_YEAR = 2800;
+    static final int MAX_YEAR = 3019;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    /**
+     * {@code YEAR_STARTS[i]} is the first millisecond of the year {@code MIN_YEAR + i}; the last entry is
+     * the end of {@code MAX_YEAR}.
+     */
+    private static final long[] YEAR_STARTS = yearStarts();
+    private static final long PROD_DATE_START = YEAR_STARTS[0];
+    private static final long PROD_DATE_END = YEAR_STARTS[YEAR_STARTS.length - 1];
+    private static final long AVERAGE_YEAR_MILLIS = 31_556_952_000L;
+
+    private ShipValidator() {
+    }
+
+    static boolean isParamTrue(Ship ship) {
+        if (ship.getName() == null || ship.getName().isEmpty() || ship.getName().length() > 50
+                || ship.getPlanet() == null || ship.getPlanet().isEmpty() || ship.getPlanet().length() > 50
+                || ship.getProdDate() == null || !checkProdDate(ship.getProdDate().getTime())
+                || ship.getSpeed() == null || ship.getSpeed() < 0.01 || ship.getSpeed() > 0.99
+                || ship.getCrewSize() == null || ship.getCrewSize() < 1 || ship.getCrewSize() > 9999) {
+
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        }
+        return true;
+    }
+
+    static boolean checkProdDate(Date date) {
+        return checkProdDate(date.getTime());
+    }
+
+    static boolean checkProdDate(long epochMillis) {
+        return epochMillis >= PROD_DATE_START && epochMillis < PROD_DATE_END;
+    }
+
+    static double getRating(Ship ship) {
+        return getRating(ship.getProdDate().getTime(), ship.isUsed(), ship.getSpeed());
+    }
+
+    static double getRating(long prodDate, boolean isUsed, double speed) {
+        if (prodDate >= PROD_DATE_END) throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        double k = isUsed ? 0.5 : 1;
+        double rating = 80 * speed * k / (MAX_YEAR - year(prodDate) + 1);
+        return Math.round(rating * 100.0) / 100.0;
+    }
+
+    /**
+     * Returns the year of {@code epochMillis} in the default time zone. Inside the allowed years the guess
+     * from the average Gregorian year length is at most one year off and is corrected by the table.
+     */
+    static int year(long epochMillis) {
+        if (epochMillis < PROD_DATE_START || epochMillis >= PROD_DATE_END) {
+            return Instant.ofEpochMilli(epochMillis).atZone(ZONE).getYear();
+        }
+        int index = (int) Math.min((epochMillis - PROD_DATE_START) / AVERAGE_YEAR_MILLIS, YEAR_STARTS.length - 2);
+        while (YEAR_STARTS[index] > epochMillis) {
+            index--;
+        }
+        while (YEAR_STARTS[index + 1] <= epochMillis) {
+            index++;
+        }
+        return MIN_YEAR + index;
+    }
+
+    private static long[] yearStarts() {
+        long[] starts = new long[MAX_YEAR - MIN_YEAR + 2];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = ZonedDateTime.of(MIN_YEAR + i, 1, 1, 0, 0, 0, 0, ZONE).toInstant().toEpochMilli();
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,19 @@
+package com.space.service;
+
+/**
+ * Encodes doubles as longs that compare like the values under {@link Double#compare}, so a minimum, a
+ * maximum or a sorted index over them can be kept in plain {@code long}s.
+ */
+public final class SortableDoubles {
+    private SortableDoubles() {
+    }
+
+    public static long encode(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    public static double decode(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+}
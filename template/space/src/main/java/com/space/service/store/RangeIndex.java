@@ -0,0 +1,89 @@
+package com.space.service.store;
+
+import java.util.Arrays;
+
+/**
+ * Slots sorted by {@code (key, id)}, where the key is a column value encoded as a {@code long} that sorts
+ * the same way as the value (see {@link com.space.service.SortableDoubles}). A range of keys is a contiguous
+ * run of positions found by binary search, and walking the positions in order yields the ships in
+ * {@code (column, id)} order without sorting them.
+ */
+final class RangeIndex {
+    private long[] keys = new long[0];
+    private long[] ids = new long[0];
+    private int[] slots = new int[0];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int slot(int position) {
+        return slots[position];
+    }
+
+    void add(long key, long id, int slot) {
+        int position = search(key, id, true);
+        if (size == keys.length) {
+            int capacity = Math.max(16, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(slots, position, slots, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        slots[position] = slot;
+        size++;
+    }
+
+    void remove(long key, long id) {
+        int position = search(key, id, true);
+        if (position == size || keys[position] != key || ids[position] != id) {
+            return;
+        }
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Replaces the contents with entries that are already sorted by {@code (key, id)}.
+     */
+    void reset(long[] keys, long[] ids, int[] slots, int size) {
+        this.keys = keys;
+        this.ids = ids;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    /**
+     * Returns the first position whose entry is at or after {@code (key, id)}, or strictly after it
+     * when {@code inclusive} is false.
+     */
+    int search(long key, long id, boolean inclusive) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compare = keys[middle] != key ? Long.compare(keys[middle], key) : Long.compare(ids[middle], id);
+            if (compare < 0 || (compare == 0 && !inclusive)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    int from(long minKey) {
+        return search(minKey, Long.MIN_VALUE, true);
+    }
+
+    int to(long maxKey) {
+        return search(maxKey, Long.MAX_VALUE, false);
+    }
+}
@@ -0,0 +1,77 @@
+package com.space.service.store;
+
+import com.space.model.ShipType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitmaps of ship ids for the low-cardinality attributes: one per ship type, one per {@code isUsed} value
+ * and one per distinct (lower-cased) planet. A planet search ORs the bitmaps of every planet that contains
+ * the pattern, so equality and planet filters resolve to an id set without touching a single row.
+ */
+final class ShipBitmapIndex {
+    static final int USED_ANY = 0;
+    static final int USED_TRUE = 1;
+    static final int USED_FALSE = 2;
+
+    private final RoaringBitmap[] shipTypes = new RoaringBitmap[ShipType.values().length];
+    private final RoaringBitmap[] used = {null, new RoaringBitmap(), new RoaringBitmap()};
+    private final Map<String, RoaringBitmap> planets = new HashMap<>();
+
+    ShipBitmapIndex() {
+        for (int i = 0; i < shipTypes.length; i++) {
+            shipTypes[i] = new RoaringBitmap();
+        }
+    }
+
+    void add(int id, int shipType, int isUsed, String planetKey) {
+        if (shipType >= 0) {
+            shipTypes[shipType].add(id);
+        }
+        if (isUsed != USED_ANY) {
+            used[isUsed].add(id);
+        }
+        if (planetKey != null) {
+            planets.computeIfAbsent(planetKey, planet -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    void remove(int id, int shipType, int isUsed, String planetKey) {
+        if (shipType >= 0) {
+            shipTypes[shipType].remove(id);
+        }
+        if (isUsed != USED_ANY) {
+            used[isUsed].remove(id);
+        }
+        RoaringBitmap planet = planetKey == null ? null : planets.get(planetKey);
+        if (planet != null) {
+            planet.remove(id);
+            if (planet.cardinality() == 0) {
+                planets.remove(planetKey);
+            }
+        }
+    }
+
+    /**
+     * Returns the ids matching every given attribute, or {@code null} when none is given.
+     */
+    RoaringBitmap resolve(int shipType, int isUsed, String planetPattern) {
+        RoaringBitmap result = null;
+        if (planetPattern != null) {
+            result = new RoaringBitmap();
+            for (Map.Entry<String, RoaringBitmap> planet : planets.entrySet()) {
+                if (planet.getKey().contains(planetPattern)) {
+                    result = result.or(planet.getValue());
+                }
+            }
+        }
+        if (shipType >= 0) {
+            result = result == null ? shipTypes[shipType] : result.and(shipTypes[shipType]);
+        }
+        if (isUsed != USED_ANY) {
+            result = result == null ? used[isUsed] : result.and(used[isUsed]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,845 @@
+package com.space.service.store;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.repository.ShipJdbcRepository;
+import com.space.service.ShipChangedEvent;
+import com.space.service.ShipCursor;
+import com.space.service.ShipFacetCounter;
+import com.space.service.ShipHistogramCounter;
+import com.space.service.ShipFilter;
+import com.space.service.SortableDoubles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToLongFunction;
+
+/**
+ * In-memory copy of the ship table laid out column by column, so that list and count queries can be
+ * answered by scanning primitive arrays instead of asking MySQL.
+ * <p>
+ * Every ship lives in a slot and the columns are parallel arrays indexed by slot. A query is planned
+ * over three kinds of index: ship type, {@code isUsed} and planet filters resolve to an id set through the
+ * {@link ShipBitmapIndex}, name searches of three or more characters are narrowed by a {@link TrigramIndex},
+ * and each range filter is a run of positions in the {@link RangeIndex} of its column. The smallest
+ * candidate set is checked row by row; a list that matches many ships instead walks the range index of
+ * the requested order and stops once the page is full. Without any usable index the store scans the
+ * live slots segment by segment on the fork/join pool. The store is loaded once at startup and then
+ * applies every committed {@link ShipChangedEvent} that {@link com.space.service.ShipModificationCounter}
+ * hands it, so it only stays exact while this application is the only writer.
+ */
+@Component
+public class ShipColumnStore {
+    private static final int SEGMENT_WORDS = 64;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int NO_CREW_SIZE = Integer.MIN_VALUE;
+    private static final byte NO_SHIP_TYPE = -1;
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+
+    private final boolean enabled;
+    private final ShipJdbcRepository shipJdbcRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final ShipBitmapIndex bitmapIndex = new ShipBitmapIndex();
+    private final RangeIndex idIndex = new RangeIndex();
+    private final RangeIndex speedIndex = new RangeIndex();
+    private final RangeIndex prodDateIndex = new RangeIndex();
+    private final RangeIndex crewSizeIndex = new RangeIndex();
+    private final RangeIndex ratingIndex = new RangeIndex();
+
+    private int size;
+    private boolean loading;
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+
+    private long[] ids = new long[0];
+    private String[] names = new String[0];
+    private String[] planets = new String[0];
+    private String[] nameKeys = new String[0];
+    private String[] planetKeys = new String[0];
+    private long[] prodDates = new long[0];
+    private double[] speeds = new double[0];
+    private int[] crewSizes = new int[0];
+    private double[] ratings = new double[0];
+    private byte[] shipTypes = new byte[0];
+    private byte[] used = new byte[0];
+
+    private long[] live = new long[0];
+
+    public ShipColumnStore(@Value("${ship.store.enabled:false}") boolean enabled,
+                           ShipJdbcRepository shipJdbcRepository) {
+        this.enabled = enabled;
+        this.shipJdbcRepository = shipJdbcRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            shipJdbcRepository.scanAll(resultSet -> put(ShipJdbcRepository.mapRow(resultSet)));
+            int[] slots = liveSlots();
+            rebuild(idIndex, slots, this::idKey);
+            rebuild(speedIndex, slots, this::speedKey);
+            rebuild(prodDateIndex, slots, this::prodDateKey);
+            rebuild(crewSizeIndex, slots, this::crewSizeKey);
+            rebuild(ratingIndex, slots, this::ratingKey);
+        } finally {
+            loading = false;
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void apply(ShipChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getShip() == null) {
+            remove(event.getId());
+        } else {
+            upsert(event.getShip());
+        }
+    }
+
+    public void upsert(Ship ship) {
+        lock.writeLock().lock();
+        try {
+            put(ship);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            unindex(slot);
+            names[slot] = null;
+            planets[slot] = null;
+            nameKeys[slot] = null;
+            planetKeys[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeCount * 2));
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int count(ShipFilter filter) {
+        Query query = new Query(filter);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = plan(query);
+            if (candidates == null) {
+                return query.unfiltered() ? slotById.size() : new CountTask(query, 0, words()).invoke();
+            }
+            if (candidates.exact) {
+                return candidates.size;
+            }
+            int count = 0;
+            for (int slot : candidates.slots()) {
+                if (matches(query, slot)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts every facet of the matching ships in one pass over the smallest candidate set, or over all
+     * live slots on the fork/join pool when no index applies.
+     */
+    public ShipFacetCounter facets(ShipFilter filter) {
+        Query query = new Query(filter);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = plan(query);
+            if (candidates == null) {
+                return new FacetTask(query, 0, words()).invoke();
+            }
+            ShipFacetCounter counter = new ShipFacetCounter();
+            for (int slot : candidates.slots()) {
+                if (candidates.exact || matches(query, slot)) {
+                    addFacets(counter, slot);
+                }
+            }
+            return counter;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the matching ships to {@code counter} in one pass, the same way {@link #facets} walks them.
+     */
+    public void histograms(ShipFilter filter, ShipHistogramCounter counter) {
+        Query query = new Query(filter);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = plan(query);
+            if (candidates == null) {
+                counter.addAll(new HistogramTask(query, counter, 0, words()).invoke());
+                return;
+            }
+            for (int slot : candidates.slots()) {
+                if (candidates.exact || matches(query, slot)) {
+                    addHistograms(counter, slot);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the matching ships ordered by {@code (order field, id)}, starting after {@code cursor}
+     * when it is given and skipping {@code offset} ships.
+     */
+    public List<ShipView> list(ShipFilter filter, ShipOrder order, ShipCursor cursor, long offset, int limit) {
+        Query query = new Query(filter);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = plan(query);
+            RangeIndex orderIndex = orderIndex(order);
+            if (walkIsCheaper(candidates, offset + limit)) {
+                return walk(query, orderIndex, cursor, offset, limit);
+            }
+            int[] slots;
+            int count = 0;
+            if (candidates == null) {
+                long[] matches = new long[words()];
+                new MatchTask(query, matches, 0, matches.length).invoke();
+                slots = new int[bitCount(matches)];
+                for (int word = 0; word < matches.length; word++) {
+                    long bits = matches[word];
+                    while (bits != 0) {
+                        int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                        if (cursor == null || compareToCursor(slot, cursor) > 0) {
+                            slots[count++] = slot;
+                        }
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                slots = candidates.slots();
+                for (int slot : slots) {
+                    if (matches(query, slot) && (cursor == null || compareToCursor(slot, cursor) > 0)) {
+                        slots[count++] = slot;
+                    }
+                }
+            }
+            SlotSort.sort(slots, count, comparator(orderKey(order)));
+
+            List<ShipView> result = new ArrayList<>(Math.min(limit, count));
+            for (long i = offset; i < count && result.size() < limit; i++) {
+                result.add(toView(slots[(int) i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walking the order index costs about {@code wanted * live / matches} rows when the matches are spread
+     * evenly; checking and sorting the candidates costs {@code n log n}.
+     */
+    private boolean walkIsCheaper(Candidates candidates, long wanted) {
+        int live = slotById.size();
+        int estimate = candidates == null ? live : candidates.size;
+        if (estimate == 0) {
+            return false;
+        }
+        double walk = (double) wanted * live / estimate;
+        double sort = estimate * (1 + Math.log(estimate) / Math.log(2));
+        return walk < sort;
+    }
+
+    private List<ShipView> walk(Query query, RangeIndex orderIndex, ShipCursor cursor, long offset, int limit) {
+        int position = cursor == null ? 0 : orderIndex.search(cursorKey(cursor), cursor.getId(), false);
+        List<ShipView> result = new ArrayList<>(Math.min(limit, orderIndex.size()));
+        long skipped = 0;
+        for (; position < orderIndex.size() && result.size() < limit; position++) {
+            int slot = orderIndex.slot(position);
+            if (!matches(query, slot)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(toView(slot));
+            }
+        }
+        return result;
+    }
+
+    private int words() {
+        return (size + 63) >>> 6;
+    }
+
+    private void put(Ship ship) {
+        Integer existing = slotById.get(ship.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unindex(slot);
+        } else {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : size++;
+            ensureCapacity(size);
+            slotById.put(ship.getId(), slot);
+        }
+        ids[slot] = ship.getId();
+        names[slot] = ship.getName();
+        planets[slot] = ship.getPlanet();
+        nameKeys[slot] = key(ship.getName());
+        planetKeys[slot] = key(ship.getPlanet());
+        prodDates[slot] = ship.getProdDate() == null ? NO_DATE : ship.getProdDate().getTime();
+        speeds[slot] = ship.getSpeed() == null ? Double.NaN : ship.getSpeed();
+        crewSizes[slot] = ship.getCrewSize() == null ? NO_CREW_SIZE : ship.getCrewSize();
+        ratings[slot] = ship.getRating() == null ? Double.NaN : ship.getRating();
+        shipTypes[slot] = ship.getShipType() == null ? NO_SHIP_TYPE : (byte) ship.getShipType().ordinal();
+        used[slot] = (byte) (ship.isUsed() == null ? ShipBitmapIndex.USED_ANY
+                : ship.isUsed() ? ShipBitmapIndex.USED_TRUE : ShipBitmapIndex.USED_FALSE);
+
+        live[slot >>> 6] |= 1L << slot;
+        nameIndex.add(slot, nameKeys[slot]);
+        bitmapIndex.add(id(ids[slot]), shipTypes[slot], used[slot], planetKeys[slot]);
+        if (!loading) {
+            idIndex.add(idKey(slot), ids[slot], slot);
+            speedIndex.add(speedKey(slot), ids[slot], slot);
+            prodDateIndex.add(prodDateKey(slot), ids[slot], slot);
+            crewSizeIndex.add(crewSizeKey(slot), ids[slot], slot);
+            ratingIndex.add(ratingKey(slot), ids[slot], slot);
+        }
+    }
+
+    private void unindex(int slot) {
+        live[slot >>> 6] &= ~(1L << slot);
+        nameIndex.remove(slot, nameKeys[slot]);
+        bitmapIndex.remove(id(ids[slot]), shipTypes[slot], used[slot], planetKeys[slot]);
+        idIndex.remove(idKey(slot), ids[slot]);
+        speedIndex.remove(speedKey(slot), ids[slot]);
+        prodDateIndex.remove(prodDateKey(slot), ids[slot]);
+        crewSizeIndex.remove(crewSizeKey(slot), ids[slot]);
+        ratingIndex.remove(ratingKey(slot), ids[slot]);
+    }
+
+    /**
+     * Bulk-builds a range index after loading, which is far cheaper than inserting the ships one by one.
+     */
+    private void rebuild(RangeIndex index, int[] liveSlots, IntToLongFunction key) {
+        int[] slots = liveSlots.clone();
+        SlotSort.sort(slots, slots.length, comparator(key));
+        long[] keys = new long[slots.length];
+        long[] sortedIds = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            keys[i] = key.applyAsLong(slots[i]);
+            sortedIds[i] = ids[slots[i]];
+        }
+        index.reset(keys, sortedIds, slots, slots.length);
+    }
+
+    private int[] liveSlots() {
+        int[] slots = new int[bitCount(live)];
+        int count = 0;
+        for (int word = 0; word < live.length; word++) {
+            long bits = live[word];
+            while (bits != 0) {
+                slots[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return slots;
+    }
+
+    private long idKey(int slot) {
+        return ids[slot];
+    }
+
+    private long speedKey(int slot) {
+        return SortableDoubles.encode(speeds[slot]);
+    }
+
+    private long prodDateKey(int slot) {
+        return prodDates[slot];
+    }
+
+    private long crewSizeKey(int slot) {
+        return crewSizes[slot];
+    }
+
+    private long ratingKey(int slot) {
+        return SortableDoubles.encode(ratings[slot]);
+    }
+
+    /**
+     * The bitmaps hold ids as ints; the ids come from an auto-increment column and stay far below that.
+     */
+    private static int id(long id) {
+        return Math.toIntExact(id);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(1024, Integer.highestOneBit(required - 1) << 1);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        planets = Arrays.copyOf(planets, capacity);
+        nameKeys = Arrays.copyOf(nameKeys, capacity);
+        planetKeys = Arrays.copyOf(planetKeys, capacity);
+        prodDates = Arrays.copyOf(prodDates, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        crewSizes = Arrays.copyOf(crewSizes, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        shipTypes = Arrays.copyOf(shipTypes, capacity);
+        used = Arrays.copyOf(used, capacity);
+        live = Arrays.copyOf(live, capacity >>> 6);
+    }
+
+    private void addHistograms(ShipHistogramCounter counter, int slot) {
+        if (!Double.isNaN(speeds[slot])) {
+            counter.addSpeed(speeds[slot]);
+        }
+        if (!Double.isNaN(ratings[slot])) {
+            counter.addRating(ratings[slot]);
+        }
+        if (crewSizes[slot] != NO_CREW_SIZE) {
+            counter.addCrewSize(crewSizes[slot]);
+        }
+        if (prodDates[slot] != NO_DATE) {
+            counter.addProdDate(prodDates[slot]);
+        }
+    }
+
+    private void addFacets(ShipFacetCounter counter, int slot) {
+        counter.add(shipTypes[slot] == NO_SHIP_TYPE ? null : SHIP_TYPES[shipTypes[slot]],
+                used[slot] == ShipBitmapIndex.USED_ANY ? null : used[slot] == ShipBitmapIndex.USED_TRUE,
+                planets[slot], 1);
+    }
+
+    private ShipView toView(int slot) {
+        return new ShipView(ids[slot], names[slot], planets[slot],
+                shipTypes[slot] == NO_SHIP_TYPE ? null : SHIP_TYPES[shipTypes[slot]], prodDates[slot],
+                used[slot] == ShipBitmapIndex.USED_TRUE, speeds[slot], crewSizes[slot], ratings[slot]);
+    }
+
+    /**
+     * Filters on name and planet are {@code LIKE '%x%'} under MySQL's case-insensitive collation,
+     * so the store compares lower-cased copies.
+     */
+    private static String key(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Picks the smallest candidate set any index can produce for the query, or returns {@code null} when
+     * no index applies.
+     */
+    private Candidates plan(Query query) {
+        Candidates best = null;
+        RoaringBitmap bitmap = bitmapIndex.resolve(query.shipType, query.used, query.planet);
+        if (bitmap != null) {
+            best = new Candidates(bitmap, query.onlyBitmapFilters());
+        }
+        int[] trigrams = query.name == null ? null : nameIndex.candidates(query.name);
+        if (trigrams != null) {
+            best = smaller(best, new Candidates(trigrams));
+        }
+        boolean onlyRange = query.name == null && bitmap == null && query.rangeFilters() == 1;
+        if (query.checkSpeed) {
+            best = smaller(best, new Candidates(speedIndex,
+                    SortableDoubles.encode(query.minSpeed), SortableDoubles.encode(query.maxSpeed), onlyRange));
+        }
+        if (query.checkDate) {
+            best = smaller(best, new Candidates(prodDateIndex,
+                    Math.max(query.after, NO_DATE + 1), query.before, onlyRange));
+        }
+        if (query.checkCrewSize) {
+            best = smaller(best, new Candidates(crewSizeIndex,
+                    Math.max(query.minCrewSize, NO_CREW_SIZE + 1L), query.maxCrewSize, onlyRange));
+        }
+        if (query.checkRating) {
+            best = smaller(best, new Candidates(ratingIndex,
+                    SortableDoubles.encode(query.minRating), SortableDoubles.encode(query.maxRating), onlyRange));
+        }
+        return best;
+    }
+
+    private static Candidates smaller(Candidates current, Candidates other) {
+        return current == null || other.size < current.size ? other : current;
+    }
+
+    private RangeIndex orderIndex(ShipOrder order) {
+        switch (order) {
+            case SPEED:
+                return speedIndex;
+            case DATE:
+                return prodDateIndex;
+            case RATING:
+                return ratingIndex;
+            default:
+                return idIndex;
+        }
+    }
+
+    private boolean matches(Query query, int slot) {
+        if (query.shipType >= 0 && shipTypes[slot] != query.shipType) {
+            return false;
+        }
+        if (query.used != ShipBitmapIndex.USED_ANY && used[slot] != query.used) {
+            return false;
+        }
+        if (query.checkDate) {
+            long prodDate = prodDates[slot];
+            if (prodDate == NO_DATE || prodDate < query.after || prodDate > query.before) {
+                return false;
+            }
+        }
+        if (query.checkSpeed && !(speeds[slot] >= query.minSpeed && speeds[slot] <= query.maxSpeed)) {
+            return false;
+        }
+        if (query.checkCrewSize) {
+            int crewSize = crewSizes[slot];
+            if (crewSize == NO_CREW_SIZE || crewSize < query.minCrewSize || crewSize > query.maxCrewSize) {
+                return false;
+            }
+        }
+        if (query.checkRating && !(ratings[slot] >= query.minRating && ratings[slot] <= query.maxRating)) {
+            return false;
+        }
+        if (query.name != null && (nameKeys[slot] == null || !nameKeys[slot].contains(query.name))) {
+            return false;
+        }
+        return query.planet == null || (planetKeys[slot] != null && planetKeys[slot].contains(query.planet));
+    }
+
+    private int compareToCursor(int slot, ShipCursor cursor) {
+        int compare = Long.compare(orderKey(cursor.getOrder()).applyAsLong(slot), cursorKey(cursor));
+        return compare != 0 ? compare : Long.compare(ids[slot], cursor.getId());
+    }
+
+    private static long cursorKey(ShipCursor cursor) {
+        switch (cursor.getOrder()) {
+            case SPEED:
+            case RATING:
+                return SortableDoubles.encode((Double) cursor.getValue());
+            case DATE:
+                return ((Date) cursor.getValue()).getTime();
+            default:
+                return cursor.getId();
+        }
+    }
+
+    private IntToLongFunction orderKey(ShipOrder order) {
+        switch (order) {
+            case SPEED:
+                return this::speedKey;
+            case DATE:
+                return this::prodDateKey;
+            case RATING:
+                return this::ratingKey;
+            default:
+                return this::idKey;
+        }
+    }
+
+    /**
+     * Orders slots by {@code (key, id)}, the same order the range indexes keep.
+     */
+    private SlotSort.SlotComparator comparator(IntToLongFunction key) {
+        return (a, b) -> {
+            int compare = Long.compare(key.applyAsLong(a), key.applyAsLong(b));
+            return compare != 0 ? compare : Long.compare(ids[a], ids[b]);
+        };
+    }
+
+    /**
+     * A candidate set from one index: a run of range index positions, a bitmap of ids or trigram slots.
+     * {@code exact} means the set is precisely the query result, so its size is the count.
+     */
+    private final class Candidates {
+        final int size;
+        final boolean exact;
+        private RangeIndex index;
+        private int from;
+        private RoaringBitmap bitmap;
+        private int[] slots;
+
+        Candidates(RangeIndex index, long minKey, long maxKey, boolean exact) {
+            this.index = index;
+            this.from = index.from(minKey);
+            this.size = Math.max(0, index.to(maxKey) - from);
+            this.exact = exact;
+        }
+
+        Candidates(RoaringBitmap bitmap, boolean exact) {
+            this.bitmap = bitmap;
+            this.size = bitmap.cardinality();
+            this.exact = exact;
+        }
+
+        Candidates(int[] slots) {
+            this.slots = slots;
+            this.size = slots.length;
+            this.exact = false;
+        }
+
+        int[] slots() {
+            if (slots != null) {
+                return slots;
+            }
+            int[] result;
+            if (bitmap != null) {
+                result = bitmap.toArray();
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = slotById.get((long) result[i]);
+                }
+            } else {
+                result = new int[size];
+                for (int i = 0; i < size; i++) {
+                    result[i] = index.slot(from + i);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A {@link ShipFilter} flattened into primitives for the scan loops.
+     */
+    private static final class Query {
+        final String name;
+        final String planet;
+        final int shipType;
+        final int used;
+        final boolean checkDate;
+        final long after;
+        final long before;
+        final boolean checkSpeed;
+        final double minSpeed;
+        final double maxSpeed;
+        final boolean checkCrewSize;
+        final int minCrewSize;
+        final int maxCrewSize;
+        final boolean checkRating;
+        final double minRating;
+        final double maxRating;
+
+        Query(ShipFilter filter) {
+            name = key(filter.getName());
+            planet = key(filter.getPlanet());
+            shipType = filter.getShipType() == null ? -1 : filter.getShipType().ordinal();
+            used = filter.getIsUsed() == null ? ShipBitmapIndex.USED_ANY
+                    : filter.getIsUsed() ? ShipBitmapIndex.USED_TRUE : ShipBitmapIndex.USED_FALSE;
+            checkDate = filter.getAfter() != null || filter.getBefore() != null;
+            after = filter.getAfter() == null ? Long.MIN_VALUE : filter.getAfter();
+            before = filter.getBefore() == null ? Long.MAX_VALUE : filter.getBefore();
+            checkSpeed = filter.getMinSpeed() != null || filter.getMaxSpeed() != null;
+            minSpeed = filter.getMinSpeed() == null ? Double.NEGATIVE_INFINITY : filter.getMinSpeed();
+            maxSpeed = filter.getMaxSpeed() == null ? Double.POSITIVE_INFINITY : filter.getMaxSpeed();
+            checkCrewSize = filter.getMinCrewSize() != null || filter.getMaxCrewSize() != null;
+            minCrewSize = filter.getMinCrewSize() == null ? Integer.MIN_VALUE : filter.getMinCrewSize();
+            maxCrewSize = filter.getMaxCrewSize() == null ? Integer.MAX_VALUE : filter.getMaxCrewSize();
+            checkRating = filter.getMinRating() != null || filter.getMaxRating() != null;
+            minRating = filter.getMinRating() == null ? Double.NEGATIVE_INFINITY : filter.getMinRating();
+            maxRating = filter.getMaxRating() == null ? Double.POSITIVE_INFINITY : filter.getMaxRating();
+        }
+
+        boolean onlyBitmapFilters() {
+            return name == null && rangeFilters() == 0;
+        }
+
+        int rangeFilters() {
+            return (checkDate ? 1 : 0) + (checkSpeed ? 1 : 0) + (checkCrewSize ? 1 : 0) + (checkRating ? 1 : 0);
+        }
+
+        boolean unfiltered() {
+            return name == null && planet == null && shipType < 0 && used == ShipBitmapIndex.USED_ANY
+                    && rangeFilters() == 0;
+        }
+    }
+
+    private final class CountTask extends RecursiveTask<Integer> {
+        private final Query query;
+        private final int fromWord;
+        private final int toWord;
+
+        CountTask(Query query, int fromWord, int toWord) {
+            this.query = query;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (toWord - fromWord > SEGMENT_WORDS) {
+                int middle = (fromWord + toWord) >>> 1;
+                CountTask right = new CountTask(query, middle, toWord);
+                right.fork();
+                int left = new CountTask(query, fromWord, middle).compute();
+                return left + right.join();
+            }
+            int count = 0;
+            for (int word = fromWord; word < toWord; word++) {
+                long bits = live[word];
+                while (bits != 0) {
+                    if (matches(query, (word << 6) + Long.numberOfTrailingZeros(bits))) {
+                        count++;
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            return count;
+        }
+    }
+
+    private final class FacetTask extends RecursiveTask<ShipFacetCounter> {
+        private final Query query;
+        private final int fromWord;
+        private final int toWord;
+
+        FacetTask(Query query, int fromWord, int toWord) {
+            this.query = query;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected ShipFacetCounter compute() {
+            if (toWord - fromWord > SEGMENT_WORDS) {
+                int middle = (fromWord + toWord) >>> 1;
+                FacetTask right = new FacetTask(query, middle, toWord);
+                right.fork();
+                ShipFacetCounter left = new FacetTask(query, fromWord, middle).compute();
+                left.addAll(right.join());
+                return left;
+            }
+            ShipFacetCounter counter = new ShipFacetCounter();
+            for (int word = fromWord; word < toWord; word++) {
+                long bits = live[word];
+                while (bits != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (matches(query, slot)) {
+                        addFacets(counter, slot);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            return counter;
+        }
+    }
+
+    private final class HistogramTask extends RecursiveTask<ShipHistogramCounter> {
+        private final Query query;
+        private final ShipHistogramCounter buckets;
+        private final int fromWord;
+        private final int toWord;
+
+        HistogramTask(Query query, ShipHistogramCounter buckets, int fromWord, int toWord) {
+            this.query = query;
+            this.buckets = buckets;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected ShipHistogramCounter compute() {
+            if (toWord - fromWord > SEGMENT_WORDS) {
+                int middle = (fromWord + toWord) >>> 1;
+                HistogramTask right = new HistogramTask(query, buckets, middle, toWord);
+                right.fork();
+                ShipHistogramCounter left = new HistogramTask(query, buckets, fromWord, middle).compute();
+                left.addAll(right.join());
+                return left;
+            }
+            ShipHistogramCounter counter = buckets.emptyCopy();
+            for (int word = fromWord; word < toWord; word++) {
+                long bits = live[word];
+                while (bits != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (matches(query, slot)) {
+                        addHistograms(counter, slot);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            return counter;
+        }
+    }
+
+    private final class MatchTask extends RecursiveAction {
+        private final Query query;
+        private final long[] matches;
+        private final int fromWord;
+        private final int toWord;
+
+        MatchTask(Query query, long[] matches, int fromWord, int toWord) {
+            this.query = query;
+            this.matches = matches;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > SEGMENT_WORDS) {
+                int middle = (fromWord + toWord) >>> 1;
+                invokeAll(new MatchTask(query, matches, fromWord, middle),
+                        new MatchTask(query, matches, middle, toWord));
+                return;
+            }
+            for (int word = fromWord; word < toWord; word++) {
+                long bits = live[word];
+                long matched = 0;
+                while (bits != 0) {
+                    long lowest = bits & -bits;
+                    if (matches(query, (word << 6) + Long.numberOfTrailingZeros(bits))) {
+                        matched |= lowest;
+                    }
+                    bits ^= lowest;
+                }
+                matches[word] = matched;
+            }
+        }
+    }
+}
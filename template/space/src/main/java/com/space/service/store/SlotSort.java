@@ -0,0 +1,55 @@
+package com.space.service.store;
+
+/**
+ * Stable merge sort of slot numbers with a primitive comparator, so sorting a result set does not box.
+ */
+final class SlotSort {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    @FunctionalInterface
+    interface SlotComparator {
+        int compare(int a, int b);
+    }
+
+    private SlotSort() {
+    }
+
+    static void sort(int[] slots, int length, SlotComparator comparator) {
+        if (length < 2) {
+            return;
+        }
+        int[] buffer = new int[length];
+        mergeSort(slots, buffer, 0, length, comparator);
+    }
+
+    private static void mergeSort(int[] slots, int[] buffer, int from, int to, SlotComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int slot = slots[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(slots[j], slot) > 0) {
+                    slots[j + 1] = slots[j];
+                    j--;
+                }
+                slots[j + 1] = slot;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(slots, buffer, from, middle, comparator);
+        mergeSort(slots, buffer, middle, to, comparator);
+        if (comparator.compare(slots[middle - 1], slots[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(slots, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                slots[i] = buffer[left++];
+            } else {
+                slots[i] = buffer[right++];
+            }
+        }
+    }
+}
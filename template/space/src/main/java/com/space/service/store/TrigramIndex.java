@@ -0,0 +1,110 @@
+package com.space.service.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from every three-character substring of a lower-cased value to the sorted slots that
+ * contain it. A pattern of three or more characters can only occur in a value that contains all of its
+ * trigrams, so intersecting their posting lists gives a candidate set that is then checked exactly.
+ */
+final class TrigramIndex {
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    void add(int slot, String key) {
+        if (key == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            postings.computeIfAbsent(trigram(key, i), trigram -> new Postings()).add(slot);
+        }
+    }
+
+    void remove(int slot, String key) {
+        if (key == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            Long trigram = trigram(key, i);
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Returns the sorted slots whose value may contain {@code pattern}, or {@code null} when the pattern
+     * is shorter than a trigram and the index cannot narrow the search.
+     */
+    int[] candidates(String pattern) {
+        if (pattern.length() < 3) {
+            return null;
+        }
+        Postings[] lists = new Postings[pattern.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(pattern, i));
+            if (lists[i] == null) {
+                return NO_SLOTS;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists[0].slots, lists[0].size);
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, result.length, lists[i].slots, lists[i].size);
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] small, int smallSize, int[] large, int largeSize) {
+        int[] result = new int[Math.min(smallSize, largeSize)];
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < smallSize && from < largeSize; i++) {
+            int found = Arrays.binarySearch(large, from, largeSize, small[i]);
+            if (found >= 0) {
+                result[count++] = small[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private static Long trigram(String value, int from) {
+        return ((long) value.charAt(from) << 32) | ((long) value.charAt(from + 1) << 16) | value.charAt(from + 2);
+    }
+
+    private static final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            int found = Arrays.binarySearch(slots, 0, size, slot);
+            if (found >= 0) {
+                return;
+            }
+            int at = -found - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            slots[at] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int found = Arrays.binarySearch(slots, 0, size, slot);
+            if (found < 0) {
+                return false;
+            }
+            System.arraycopy(slots, found + 1, slots, found, size - found - 1);
+            size--;
+            return true;
+        }
+    }
+}
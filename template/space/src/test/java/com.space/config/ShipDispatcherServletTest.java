@@ -0,0 +1,128 @@
+package com.space.config;
+
+import com.space.controller.ShipBulkheads;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+/**
+ * Sends requests through {@link ShipDispatcherServlet} itself, which the MockMvc tests bypass.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = {"ship.bulkhead.enabled=true", "ship.bulkhead.lookup.threads=1",
+        "ship.bulkhead.timeout=5000"})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipDispatcherServletTest {
+
+    private WebApplicationContext context;
+    private ShipBulkheads bulkheads;
+    private ShipDispatcherServlet servlet;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setup() throws Exception {
+        servlet = new ShipDispatcherServlet(context);
+        servlet.init(new MockServletConfig(context.getServletContext()));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    //test1
+    @Test
+    public void getShipRunsOnBulkheadWithTimeoutTest() throws Exception {
+        MockHttpServletRequest request = request("/rest/ships/14");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        assertTrue("Запрос не выполняется асинхронно в bulkhead", asyncContext != null);
+        assertEquals("Не задан таймаут асинхронного запроса", 5000L, asyncContext.getTimeout());
+        awaitCompletion(request);
+        assertEquals("Возвращается не правильный статус при запросе GET /rest/ships/{id} через bulkhead",
+                200, response.getStatus());
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/{id} через bulkhead",
+                response.getContentAsString().contains("\"id\":14"));
+    }
+
+    //test2
+    @Test
+    public void queuedRequestTimesOutWithServiceUnavailableTest() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        bulkheads.submit(ShipBulkheads.Endpoint.LOOKUP, () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await(5, TimeUnit.SECONDS);
+
+        MockHttpServletRequest request = request("/rest/ships/14");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext, request, response));
+        }
+
+        assertEquals("Запрос, не дождавшийся потока, должен получить 503", 503, response.getStatus());
+        assertTrue("Не вернулся заголовок Retry-After", response.getHeader(HttpHeaders.RETRY_AFTER) != null);
+        assertTrue("Запрос, не дождавшийся потока, не завершен", !request.isAsyncStarted());
+
+        release.countDown();
+        Thread.sleep(100);
+        assertEquals("Запрос выполнился после таймаута", 503, response.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static void awaitCompletion(MockHttpServletRequest request) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (request.isAsyncStarted() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setBulkheads(ShipBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+}
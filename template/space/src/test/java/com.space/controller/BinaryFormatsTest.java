@@ -0,0 +1,128 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class BinaryFormatsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getShipsAsCborTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships?pageSize=40")
+                .accept(WebConfig.APPLICATION_CBOR_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertTrue("Вернулся не правильный Content-Type при запросе GET /rest/ships в формате CBOR",
+                response.getContentType().startsWith(WebConfig.APPLICATION_CBOR_VALUE));
+        assertTrue("Не вернулся заголовок Vary: Accept при запросе GET /rest/ships",
+                response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+        List<ShipInfoTest> actual = cborMapper.readValue(response.getContentAsByteArray(),
+                new TypeReference<List<ShipInfoTest>>() {
+                });
+        assertTrue("Вернулся не правильный результат при запросе GET /rest/ships в формате CBOR",
+                actual.equals(testsHelper.getAllShips()));
+    }
+
+    //test2
+    @Test
+    public void getShipAsJsonByDefaultTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/14"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertTrue("Вернулся не JSON при запросе GET /rest/ships/{id} без заголовка Accept",
+                response.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE));
+        ShipInfoTest actual = mapper.readValue(response.getContentAsString(), ShipInfoTest.class);
+        assertTrue("Вернулся неправильный объект при запросе GET /rest/ships/{id}",
+                actual.equals(testsHelper.getShipInfosById(14)));
+    }
+
+    //test3
+    @Test
+    public void createShipsFromSmileTest() throws Exception {
+        JsonNode ships = mapper.readTree("[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.EMPTY_NAME_JSON + "]");
+        byte[] response = mockMvc.perform(post("/rest/ships/batch")
+                .contentType(WebConfig.APPLICATION_SMILE_VALUE)
+                .accept(WebConfig.APPLICATION_SMILE_VALUE)
+                .content(smileMapper.writeValueAsBytes(ships)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode result = smileMapper.readTree(response);
+
+        assertTrue("Возвращается не правильный результат при запросе POST /rest/ships/batch в формате Smile.",
+                result.get("received").asInt() == 2 && result.get("ids").size() == 1
+                        && result.get("errors").size() == 1 && result.get("errors").get(0).get("index").asInt() == 1);
+    }
+
+    //test4
+    @Test
+    public void createShipsFromCborReportsUnboundItemTest() throws Exception {
+        JsonNode ships = mapper.readTree("[" + TestsHelper.NORMAL_JSON + ","
+                + TestsHelper.NORMAL_JSON.replace("\"MILITARY\"", "\"BOAT\"") + "," + TestsHelper.IS_USED_TRUE_JSON + "]");
+        byte[] response = mockMvc.perform(post("/rest/ships/batch")
+                .contentType(WebConfig.APPLICATION_CBOR_VALUE)
+                .accept(WebConfig.APPLICATION_CBOR_VALUE)
+                .content(cborMapper.writeValueAsBytes(ships)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode result = cborMapper.readTree(response);
+
+        assertTrue("Возвращается не правильный результат при запросе POST /rest/ships/batch в формате CBOR с нечитаемым кораблём.",
+                result.get("received").asInt() == 3 && result.get("ids").size() == 2
+                        && result.get("errors").size() == 1 && result.get("errors").get(0).get("index").asInt() == 1
+                        && result.get("errors").get(0).get("status").asInt() == 400);
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
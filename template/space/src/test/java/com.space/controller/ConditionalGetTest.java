@@ -0,0 +1,137 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = {"ship.cache.count.size=16", "ship.cache.list.size=16"})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ConditionalGetTest {
+
+    private WebApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getShipNotModifiedTest() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/14"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue("Не вернулся заголовок ETag при запросе GET /rest/ships/{id}", eTag != null);
+        assertTrue("Вернулся не слабый ETag при запросе GET /rest/ships/{id}", eTag.startsWith("W/"));
+
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/14")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertTrue("Вернулось тело ответа 304 при запросе GET /rest/ships/{id}",
+                response.getContentAsString().isEmpty());
+    }
+
+    //test2
+    @Test
+    public void getShipModifiedAfterUpdateTest() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/14"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/rest/ships/14")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Updated\"}"))
+                .andExpect(status().isOk());
+
+        String newETag = mockMvc.perform(get("/rest/ships/14")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue("ETag не изменился после обновления корабля при запросе GET /rest/ships/{id}",
+                newETag != null && !newETag.equals(eTag));
+    }
+
+    //test3
+    @Test
+    public void getListAndCountModifiedAfterCreateTest() throws Exception {
+        String listETag = mockMvc.perform(get("/rest/ships?pageSize=40"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String countETag = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue("Не вернулся заголовок ETag при запросе GET /rest/ships", listETag != null && countETag != null);
+        assertTrue("Вернулся не слабый ETag при запросе GET /rest/ships",
+                listETag.startsWith("W/") && countETag.startsWith("W/"));
+
+        mockMvc.perform(get("/rest/ships?pageSize=40").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/rest/ships/count").header(HttpHeaders.IF_NONE_MATCH, countETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships?pageSize=40").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/count").header(HttpHeaders.IF_NONE_MATCH, countETag))
+                .andExpect(status().isOk());
+    }
+
+    //test4
+    @Test
+    public void getListModifiedAfterOutsideWriteTest() throws Exception {
+        String listETag = mockMvc.perform(get("/rest/ships?pageSize=40"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE ship SET name = 'Outside' WHERE id = 14");
+        jdbcTemplate.update("UPDATE ship_modification SET modifications = modifications + 1 WHERE id = 1");
+
+        String body = mockMvc.perform(get("/rest/ships?pageSize=40").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Вернулся закэшированный список после изменения таблицы в обход приложения при запросе GET /rest/ships",
+                body.contains("Outside"));
+    }
+
+    @Autowired
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
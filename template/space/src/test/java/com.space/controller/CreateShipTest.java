@@ -23,6 +23,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -154,6 +155,31 @@ public class CreateShipTest {
         assertTrue("Возвращается не правильный результат при запросе создания корабля с параметром isUsed.", actual.equals(expected));
     }
 
+    //test10
+    @Test
+    public void createShipShipTypeAbsentTest() throws Exception {
+        String created = mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NO_SHIP_TYPE_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = mapper.readTree(created).get("id").asLong();
+
+        String list = mockMvc.perform(get("/rest/ships?name=123456789"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Не возвращается корабль без параметра shipType при запросе GET /rest/ships.",
+                mapper.readTree(list).size() == 1 && mapper.readTree(list).get(0).get("shipType").isNull());
+        mockMvc.perform(get("/rest/ships/" + id))
+                .andExpect(status().isOk());
+        String csv = mockMvc.perform(get("/rest/ships/export?format=csv&name=123456789"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/export?format=csv для корабля без параметра shipType.",
+                csv.contains(id + ",123456789,Earth,,"));
+    }
+
     @Autowired
     public void setContext(WebApplicationContext context) {
         this.context = context;
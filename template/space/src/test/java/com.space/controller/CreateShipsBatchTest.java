@@ -0,0 +1,142 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class CreateShipsBatchTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void createShipsFromJsonArrayReportsInvalidItems() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.EMPTY_NAME_JSON + "," + TestsHelper.IS_USED_TRUE_JSON + "]";
+        JsonNode result = readResult(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(body));
+
+        assertTrue("Возвращается не правильное количество принятых кораблей при запросе POST /rest/ships/batch.",
+                result.get("received").asInt() == 3);
+        assertTrue("Возвращаются не правильные id созданных кораблей при запросе POST /rest/ships/batch.",
+                result.get("ids").size() == 2 && result.get("ids").get(0).asLong() == 41L && result.get("ids").get(1).asLong() == 42L);
+        assertTrue("Не сообщается об ошибке в невалидном корабле при запросе POST /rest/ships/batch.",
+                result.get("errors").size() == 1 && result.get("errors").get(0).get("index").asInt() == 1
+                        && result.get("errors").get(0).get("status").asInt() == 400);
+        assertTrue("Созданные корабли не учитываются в GET /rest/ships/count после POST /rest/ships/batch.",
+                getCount() == testsHelper.getAllShips().size() + 2);
+    }
+
+    //test2
+    @Test
+    public void createShipsFromNdjsonSkipsMalformedLines() throws Exception {
+        String body = TestsHelper.NORMAL_JSON + "\n\n{\"name\": \n" + TestsHelper.TOO_BIG_CREW_SIZE_JSON + "\n" + TestsHelper.NO_IS_USED_JSON + "\n";
+        JsonNode result = readResult(post("/rest/ships/batch")
+                .contentType("application/x-ndjson")
+                .content(body));
+
+        assertTrue("Возвращается не правильное количество принятых кораблей при запросе POST /rest/ships/batch в формате NDJSON.",
+                result.get("received").asInt() == 4);
+        assertTrue("Возвращаются не правильные id созданных кораблей при запросе POST /rest/ships/batch в формате NDJSON.",
+                result.get("ids").size() == 2);
+        assertTrue("Не сообщается об ошибках при запросе POST /rest/ships/batch в формате NDJSON.",
+                result.get("errors").size() == 2 && result.get("errors").get(0).get("index").asInt() == 1
+                        && result.get("errors").get(1).get("index").asInt() == 2);
+    }
+
+    //test3
+    @Test
+    public void createShipsFromJsonArrayReportsUnboundItems() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.NORMAL_JSON.replace("\"speed\":0.8", "\"speed\":\"fast\"")
+                + ",[]," + TestsHelper.IS_USED_TRUE_JSON + "]";
+        JsonNode result = readResult(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(body));
+
+        assertTrue("Возвращается не правильное количество принятых кораблей при запросе POST /rest/ships/batch.",
+                result.get("received").asInt() == 4);
+        assertTrue("Один нечитаемый корабль не должен отменять весь запрос POST /rest/ships/batch.",
+                result.get("ids").size() == 2);
+        assertTrue("Не сообщается об ошибках в нечитаемых кораблях при запросе POST /rest/ships/batch.",
+                result.get("errors").size() == 2
+                        && result.get("errors").get(0).get("index").asInt() == 1 && result.get("errors").get(0).get("status").asInt() == 400
+                        && result.get("errors").get(1).get("index").asInt() == 2 && result.get("errors").get(1).get("status").asInt() == 400);
+    }
+
+    //test4
+    @Test
+    public void createShipsFromTruncatedJsonArrayKeepsReadItems() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.IS_USED_TRUE_JSON + ",{\"name\": ";
+        JsonNode result = readResult(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(body));
+
+        assertTrue("Возвращается не правильный результат при запросе POST /rest/ships/batch с обрезанным массивом.",
+                result.get("received").asInt() == 3 && result.get("ids").size() == 2
+                        && result.get("errors").size() == 1 && result.get("errors").get(0).get("index").asInt() == 2);
+        assertTrue("Прочитанные корабли не создаются при запросе POST /rest/ships/batch с обрезанным массивом.",
+                getCount() == testsHelper.getAllShips().size() + 2);
+    }
+
+    //test5
+    @Test
+    public void createShipsFromNonArrayIsBadRequest() throws Exception {
+        mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode readResult(RequestBuilder request) throws Exception {
+        String contentAsString = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(contentAsString);
+    }
+
+    private int getCount() throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,122 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ExportShipsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void exportNdjsonWithFiltersTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships/export?planet=a&order=SPEED"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<ShipInfoTest> actual = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(result.getResponse().getContentAsString()));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            actual.add(mapper.readValue(line, ShipInfoTest.class));
+        }
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.SPEED,
+                testsHelper.getShipInfosByPlanet("a", testsHelper.getAllShips()));
+
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/export с параметрами planet и order.",
+                actual.equals(expected));
+        assertTrue("Возвращается не правильный Content-Type при запросе GET /rest/ships/export.",
+                result.getResponse().getContentType().startsWith("application/x-ndjson"));
+    }
+
+    //test2
+    @Test
+    public void exportCsvWithGzipTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships/export?format=csv&shipType=MERCHANT")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue("Не возвращается заголовок Content-Encoding при запросе GET /rest/ships/export со сжатием.",
+                "gzip".equals(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)));
+        assertTrue("Заголовок Vary при запросе GET /rest/ships/export должен содержать и Accept, и Accept-Encoding.",
+                result.getResponse().getHeaders(HttpHeaders.VARY).containsAll(
+                        Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)));
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray())), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        }
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByShipType(ShipType.MERCHANT, testsHelper.getAllShips());
+        List<ShipInfoTest> actual = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] values = line.split(",");
+            actual.add(new ShipInfoTest(Long.valueOf(values[0]), values[1], values[2], ShipType.valueOf(values[3]),
+                    Long.valueOf(values[4]), Boolean.valueOf(values[5]), Double.valueOf(values[6]),
+                    Integer.valueOf(values[7]), Double.valueOf(values[8])));
+        }
+
+        assertTrue("Возвращается не правильный заголовок CSV при запросе GET /rest/ships/export?format=csv.",
+                "id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating".equals(lines.get(0)));
+        assertTrue("Возвращается не правильный результат при запросе GET /rest/ships/export?format=csv с параметром shipType.",
+                actual.equals(expected));
+    }
+
+    //test3
+    @Test
+    public void exportUnknownFormatTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,98 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetAllByCursorTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getAllByCursorOrderSpeedReturnsAllShipsInOrder() throws Exception {
+        List<ShipInfoTest> actual = readAllPages("/rest/ships?order=SPEED&pageSize=7");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.SPEED,
+                new ArrayList<>(testsHelper.getAllShips()));
+
+        assertTrue("Возвращается не правильный результат при постраничном обходе GET /rest/ships по cursor с параметром order.", actual.equals(expected));
+    }
+
+    //test2
+    @Test
+    public void getAllByCursorWithFiltersMatchesOffsetPages() throws Exception {
+        List<ShipInfoTest> actual = readAllPages("/rest/ships?order=RATING&pageSize=2&planet=a&isUsed=false");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.RATING,
+                testsHelper.getShipInfosByIsUsed(false,
+                        testsHelper.getShipInfosByPlanet("a", testsHelper.getAllShips())));
+
+        assertTrue("Возвращается не правильный результат при постраничном обходе GET /rest/ships по cursor с параметрами planet и isUsed.", actual.equals(expected));
+    }
+
+    //test3
+    @Test
+    public void getAllByInvalidCursorTest() throws Exception {
+        mockMvc.perform(get("/rest/ships?order=DATE&cursor=bm9wZQ")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<ShipInfoTest> readAllPages(String url) throws Exception {
+        List<ShipInfoTest> result = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MvcResult page = mockMvc.perform(get(url + "&cursor=" + cursor)
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            result.addAll(mapper.readValue(page.getResponse().getContentAsString(), typeReference));
+            cursor = page.getResponse().getHeader(ShipController.NEXT_CURSOR_HEADER);
+        }
+        return result;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
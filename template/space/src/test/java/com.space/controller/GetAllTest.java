@@ -28,6 +28,7 @@ import java.util.List;
 
 import static org.springframework.test.util.AssertionErrors.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -243,6 +244,29 @@ public class GetAllTest {
         assertTrue("Возвращается не правильный результат при запросе GET /rest/ships с параметрами after, before, minCrewSize и maxCrewSize.", actual.equals(expected));
     }
 
+    //test11
+    @Test
+    public void getAllWithFiltersNameWildcard() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.IS_USED_FALSE_JSON.replace("123456789", "Sun_Ray")))
+                .andExpect(status().isOk());
+
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships")
+                .param("name", "_")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<ShipInfoTest> ships = mapper.readValue(contentAsString, typeReference);
+
+        assertTrue("Символ _ в параметре name при запросе GET /rest/ships должен искаться как обычный символ.",
+                ships.size() == 1 && ships.get(0).name.equals("Sun_Ray"));
+    }
+
     @Autowired
     public void setContext(WebApplicationContext context) {
         this.context = context;
@@ -181,6 +181,22 @@ public class GetCountTest {
         assertTrue("Во звращается не правильный результат при запросе GET /rest/ships/count с параметрами isUsed, minSpeed и maxSpeed.", actual == expected);
     }
 
+    //test9
+    @Test
+    public void getCountWithFiltersPlanetWildcard() throws Exception {
+        ResultActions resultActions = this.mockMvc.perform(get("/rest/ships/count")
+                .param("planet", "%")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+        int actual = Integer.parseInt(contentAsString);
+        int expected = testsHelper.getShipInfosByPlanet("%", testsHelper.getAllShips()).size();
+
+        assertTrue("Символ % в параметре planet при запросе GET /rest/ships/count должен искаться как обычный символ.", actual == expected);
+    }
+
     @Autowired
     public void setContext(WebApplicationContext context) {
         this.context = context;
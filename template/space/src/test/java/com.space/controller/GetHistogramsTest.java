@@ -0,0 +1,103 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetHistogramsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getHistogramsWithFiltersTest() throws Exception {
+        JsonNode histograms = mapper.readTree(mockMvc.perform(get("/rest/ships/histograms")
+                .param("shipType", "MILITARY")
+                .param("speedWidth", "0.5")
+                .param("yearWidth", "100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<ShipInfoTest> ships = testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips());
+
+        for (String field : new String[]{"speed", "rating", "crewSize", "year"}) {
+            assertTrue("Возвращается не правильное количество кораблей в гистограмме " + field
+                            + " при запросе GET /rest/ships/histograms с параметром shipType.",
+                    sum(histograms.get(field).get("counts")) == ships.size());
+        }
+        JsonNode speed = histograms.get("speed");
+        assertTrue("Возвращаются не правильные интервалы speed при запросе GET /rest/ships/histograms с параметром speedWidth.",
+                speed.get("from").asDouble() == 0 && speed.get("width").asDouble() == 0.5
+                        && speed.get("counts").size() == 2
+                        && speed.get("counts").get(1).asInt() == testsHelper.getShipInfosByMinSpeed(0.5, ships).size());
+        JsonNode year = histograms.get("year");
+        long beforeThirtiethCentury = ships.stream().filter(ship -> year(ship.prodDate) < 2900).count();
+        assertTrue("Возвращаются не правильные интервалы year при запросе GET /rest/ships/histograms с параметром yearWidth.",
+                year.get("from").asInt() == 2800 && year.get("counts").size() == 3
+                        && year.get("counts").get(0).asLong() == beforeThirtiethCentury);
+    }
+
+    //test2
+    @Test
+    public void getHistogramsWithBadWidthTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/histograms").param("ratingWidth", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/ships/histograms").param("speedWidth", "0.00001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long sum(JsonNode counts) {
+        long sum = 0;
+        for (JsonNode count : counts) {
+            sum += count.asLong();
+        }
+        return sum;
+    }
+
+    private int year(long prodDate) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(prodDate);
+        return calendar.get(Calendar.YEAR);
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
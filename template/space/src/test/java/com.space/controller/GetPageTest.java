@@ -0,0 +1,124 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetPageTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getPageWithoutFiltersReturnsFirstPageAndTotal() throws Exception {
+        JsonNode page = readPage("/rest/ships/page");
+
+        List<ShipInfoTest> items = mapper.convertValue(page.get("items"), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильный список при запросе GET /rest/ships/page.", items.equals(expected));
+        assertTrue("Возвращается не правильный total при запросе GET /rest/ships/page.",
+                page.get("total").asInt() == testsHelper.getAllShips().size());
+        assertTrue("Возвращается не правильный hasNext при запросе GET /rest/ships/page.", page.get("hasNext").asBoolean());
+    }
+
+    //test2
+    @Test
+    public void getPageWithFiltersShipTypeOrderLastPage() throws Exception {
+        JsonNode page = readPage("/rest/ships/page?shipType=MILITARY&order=SPEED&pageNumber=2&pageSize=5");
+
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips());
+        List<ShipInfoTest> items = mapper.convertValue(page.get("items"), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(2, 5,
+                testsHelper.getShipInfosByOrder(ShipOrder.SPEED, filtered));
+
+        assertTrue("Возвращается не правильный список при запросе GET /rest/ships/page с параметрами shipType и order.", items.equals(expected));
+        assertTrue("Возвращается не правильный total при запросе GET /rest/ships/page с параметрами shipType и order.",
+                page.get("total").asInt() == filtered.size());
+        assertTrue("Возвращается не правильный hasNext на последней странице GET /rest/ships/page.", !page.get("hasNext").asBoolean());
+    }
+
+    //test3
+    @Test
+    public void getPageWithFacetsTest() throws Exception {
+        JsonNode page = readPage("/rest/ships/page?planet=a&facets=true&facetPlanets=2");
+
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByPlanet("a", testsHelper.getAllShips());
+        JsonNode facets = page.get("facets");
+        for (ShipType shipType : ShipType.values()) {
+            assertTrue("Возвращается не правильный фасет shipType при запросе GET /rest/ships/page с параметром facets.",
+                    facets.get("shipTypes").get(shipType.name()).asInt()
+                            == testsHelper.getShipInfosByShipType(shipType, filtered).size());
+        }
+        assertTrue("Возвращается не правильный фасет isUsed при запросе GET /rest/ships/page с параметром facets.",
+                facets.get("used").asInt() == testsHelper.getShipInfosByIsUsed(true, filtered).size()
+                        && facets.get("notUsed").asInt() == testsHelper.getShipInfosByIsUsed(false, filtered).size());
+        assertTrue("Возвращается не правильное количество планет при запросе GET /rest/ships/page с параметром facetPlanets.",
+                facets.get("planets").size() == 2);
+        assertTrue("Возвращается не правильный total при запросе GET /rest/ships/page с параметром facets.",
+                page.get("total").asInt() == filtered.size());
+        assertTrue("Возвращаются фасеты без параметра facets при запросе GET /rest/ships/page.",
+                !readPage("/rest/ships/page").has("facets"));
+    }
+
+    //test4
+    @Test
+    public void getPageWithInvalidPageSizeTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/page?pageSize=0")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode readPage(String url) throws Exception {
+        String contentAsString = mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(contentAsString);
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
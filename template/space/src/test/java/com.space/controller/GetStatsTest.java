@@ -0,0 +1,101 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetStatsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getStatsTest() throws Exception {
+        JsonNode stats = getStats();
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+
+        assertTrue("Возвращается не правильное количество кораблей при запросе GET /rest/ships/stats.",
+                stats.get("total").asInt() == ships.size());
+        for (ShipType shipType : ShipType.values()) {
+            assertTrue("Возвращается не правильное количество кораблей по shipType при запросе GET /rest/ships/stats.",
+                    stats.get("shipTypes").get(shipType.name()).asInt()
+                            == testsHelper.getShipInfosByShipType(shipType, ships).size());
+        }
+        assertTrue("Возвращается не правильное количество кораблей по planet при запросе GET /rest/ships/stats.",
+                stats.get("planets").get("Earth").asInt() == countPlanet("Earth", ships));
+        assertTrue("Возвращается не правильное количество кораблей по isUsed при запросе GET /rest/ships/stats.",
+                stats.get("used").asInt() == testsHelper.getShipInfosByIsUsed(true, ships).size()
+                        && stats.get("notUsed").asInt() == testsHelper.getShipInfosByIsUsed(false, ships).size());
+        assertTrue("Возвращается не правильная статистика speed при запросе GET /rest/ships/stats.",
+                stats.get("speed").get("min").asDouble() == ships.stream().mapToDouble(ship -> ship.speed).min().getAsDouble()
+                        && stats.get("speed").get("max").asDouble() == ships.stream().mapToDouble(ship -> ship.speed).max().getAsDouble());
+        assertTrue("Возвращается не правильная статистика crewSize при запросе GET /rest/ships/stats.",
+                Math.abs(stats.get("crewSize").get("avg").asDouble()
+                        - ships.stream().mapToInt(ship -> ship.crewSize).average().getAsDouble()) < 1e-9);
+        assertTrue("Возвращается не правильная статистика rating при запросе GET /rest/ships/stats.",
+                stats.get("rating").get("max").asDouble() == ships.stream().mapToDouble(ship -> ship.rating).max().getAsDouble());
+    }
+
+    //test2
+    @Test
+    public void getStatsAfterDeleteTest() throws Exception {
+        mockMvc.perform(delete("/rest/ships/40")).andExpect(status().isOk());
+        JsonNode stats = getStats();
+
+        assertTrue("Удаленный корабль учитывается при запросе GET /rest/ships/stats.",
+                stats.get("total").asInt() == testsHelper.getAllShips().size() - 1
+                        && stats.get("rating").get("max").asDouble() < testsHelper.getShipInfosById(40L).rating);
+    }
+
+    private long countPlanet(String planet, List<ShipInfoTest> ships) {
+        return ships.stream().filter(ship -> ship.planet.equals(planet)).count();
+    }
+
+    private JsonNode getStats() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/ships/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,131 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ImportShipsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void importNdjsonReportsRejectedLinesTest() throws Exception {
+        String body = TestsHelper.NORMAL_JSON + "\n{\"name\": \n\n" + TestsHelper.TOO_BIG_CREW_SIZE_JSON + "\r\n"
+                + TestsHelper.NO_IS_USED_JSON + "\n";
+        JsonNode result = readResult(post("/rest/ships/import?format=ndjson").content(body));
+
+        assertTrue("Возвращается не правильное количество импортированных кораблей при запросе POST /rest/ships/import.",
+                result.get("imported").asInt() == 2 && result.get("lines").asInt() == 4);
+        assertTrue("Возвращается не правильное количество отклоненных строк при запросе POST /rest/ships/import.",
+                result.get("rejected").asInt() == 2 && result.get("errors").get(0).get("index").asInt() == 2
+                        && result.get("errors").get(1).get("index").asInt() == 4);
+        assertTrue("Возвращается не правильный offset после полного импорта при запросе POST /rest/ships/import.",
+                result.get("completed").asBoolean()
+                        && result.get("offset").asLong() == body.getBytes(StandardCharsets.UTF_8).length);
+        assertTrue("Импортированные корабли не учитываются в GET /rest/ships/count после POST /rest/ships/import.",
+                getCount() == testsHelper.getAllShips().size() + 2);
+    }
+
+    //test2
+    @Test
+    public void importCsvFromExportTest() throws Exception {
+        byte[] csv = mockMvc.perform(get("/rest/ships/export?format=csv&planet=Earth"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode result = readResult(post("/rest/ships/import?format=csv").content(csv));
+        int expected = testsHelper.getShipInfosByPlanet("Earth", testsHelper.getAllShips()).size();
+
+        assertTrue("Возвращается не правильный результат при импорте CSV из GET /rest/ships/export при запросе POST /rest/ships/import.",
+                result.get("imported").asInt() == expected && result.get("rejected").asInt() == 0);
+        ShipInfoTest imported = getShip(41L);
+        ShipInfoTest original = getShip(testsHelper.getShipInfosByPlanet("Earth", testsHelper.getAllShips()).get(0).id);
+        assertTrue("Импортированный из CSV корабль не совпадает с экспортированным при запросе POST /rest/ships/import.",
+                imported.name.equals(original.name) && imported.isUsed.equals(original.isUsed)
+                        && imported.rating.equals(original.rating) && imported.prodDate.equals(original.prodDate)
+                        && imported.speed.equals(original.speed) && imported.crewSize.equals(original.crewSize));
+    }
+
+    //test3
+    @Test
+    public void importResumesFromOffsetTest() throws Exception {
+        String first = TestsHelper.NORMAL_JSON + "\n";
+        String body = first + TestsHelper.NO_IS_USED_JSON + "\n" + TestsHelper.IS_USED_TRUE_JSON + "\n";
+        JsonNode result = readResult(post("/rest/ships/import?offset=" + first.length()).content(body));
+
+        assertTrue("Не учитывается параметр offset при запросе POST /rest/ships/import.",
+                result.get("imported").asInt() == 2 && getCount() == testsHelper.getAllShips().size() + 2);
+    }
+
+    //test4
+    @Test
+    public void importInvalidRequestTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/import?format=xml").content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/ships/import?format=csv").content("name,planet\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/ships/import?path=ships.csv"))
+                .andExpect(status().isForbidden());
+    }
+
+    private JsonNode readResult(RequestBuilder request) throws Exception {
+        String contentAsString = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(contentAsString);
+    }
+
+    private ShipInfoTest getShip(long id) throws Exception {
+        return mapper.readValue(mockMvc.perform(get("/rest/ships/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+    }
+
+    private int getCount() throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
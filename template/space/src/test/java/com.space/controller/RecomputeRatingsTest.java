@@ -0,0 +1,102 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class RecomputeRatingsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void recomputeRestoresRatingsTest() throws Exception {
+        double[] ratings = new double[5];
+        for (int id = 1; id <= ratings.length; id++) {
+            ratings[id - 1] = getShip(id).get("rating").asDouble();
+        }
+        jdbcTemplate.update("UPDATE ship SET rating = 99 WHERE id <= ?", ratings.length);
+
+        JsonNode status = recompute();
+
+        assertTrue("Пересчет рейтингов не завершился при запросе POST /rest/ships/ratings/recompute.",
+                status.get("completed").asBoolean() && status.get("failure").isNull());
+        assertTrue("Пересчет рейтингов обработал не все корабли при запросе POST /rest/ships/ratings/recompute.",
+                status.get("scanned").asInt() == 40 && status.get("total").asInt() == 40);
+        assertTrue("Пересчет рейтингов обновил не правильное количество кораблей при запросе POST /rest/ships/ratings/recompute.",
+                status.get("updated").asInt() == ratings.length);
+        for (int id = 1; id <= ratings.length; id++) {
+            assertTrue("Рейтинг корабля не пересчитан при запросе POST /rest/ships/ratings/recompute.",
+                    getShip(id).get("rating").asDouble() == ratings[id - 1]);
+        }
+    }
+
+    //test2
+    @Test
+    public void recomputeWritesOnlyChangedRatingsTest() throws Exception {
+        JsonNode status = recompute();
+
+        assertTrue("Пересчет рейтингов перезаписывает не изменившиеся рейтинги при запросе POST /rest/ships/ratings/recompute.",
+                status.get("completed").asBoolean() && status.get("updated").asInt() == 0);
+    }
+
+    private JsonNode recompute() throws Exception {
+        mockMvc.perform(post("/rest/ships/ratings/recompute")).andExpect(status().isAccepted());
+        long deadline = System.currentTimeMillis() + 10_000;
+        JsonNode status;
+        do {
+            Thread.sleep(10);
+            status = mapper.readTree(mockMvc.perform(get("/rest/ships/ratings/recompute"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        } while (status.get("running").asBoolean() && System.currentTimeMillis() < deadline);
+        return status;
+    }
+
+    private JsonNode getShip(long id) throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/ships/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,129 @@
+package com.space.controller;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ShipBulkheadsTest {
+
+    private final ExecutorService lookupExecutor = executor(1, 4);
+    private final ExecutorService readExecutor = executor(4, 4);
+    private final ExecutorService writeExecutor = executor(1, 1);
+    private final ExecutorService bulkExecutor = executor(1, 1);
+
+    @After
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+        readExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+        bulkExecutor.shutdownNow();
+    }
+
+    @Test
+    public void requestsAreClassifiedByEndpoint() {
+        ShipBulkheads bulkheads = bulkheads("");
+
+        assertEquals(ShipBulkheads.Endpoint.LOOKUP, bulkheads.endpoint(new MockHttpServletRequest("GET", "/rest/ships/12")));
+        assertEquals(ShipBulkheads.Endpoint.SEARCH, bulkheads.endpoint(new MockHttpServletRequest("GET", "/rest/ships")));
+        assertEquals(ShipBulkheads.Endpoint.SEARCH, bulkheads.endpoint(new MockHttpServletRequest("GET", "/rest/ships/count")));
+        assertEquals(ShipBulkheads.Endpoint.EXPORT, bulkheads.endpoint(new MockHttpServletRequest("GET", "/rest/ships/export")));
+        assertEquals(ShipBulkheads.Endpoint.CREATE, bulkheads.endpoint(new MockHttpServletRequest("POST", "/rest/ships")));
+        assertEquals(ShipBulkheads.Endpoint.UPDATE, bulkheads.endpoint(new MockHttpServletRequest("POST", "/rest/ships/12")));
+        assertEquals(ShipBulkheads.Endpoint.BULK, bulkheads.endpoint(new MockHttpServletRequest("POST", "/rest/ships/import")));
+        assertEquals(ShipBulkheads.Endpoint.DELETE, bulkheads.endpoint(new MockHttpServletRequest("DELETE", "/rest/ships/12")));
+        assertNull("Статические ресурсы не должны попадать в bulkhead",
+                bulkheads.endpoint(new MockHttpServletRequest("GET", "/resources/scripts.js")));
+    }
+
+    @Test
+    public void fullEndpointIsRejectedWhileOthersRun() throws Exception {
+        ShipBulkheads bulkheads = bulkheads("search:2");
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.SEARCH, blocked));
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.SEARCH, blocked));
+        assertFalse("Переполненный endpoint принимает запросы", bulkheads.submit(ShipBulkheads.Endpoint.SEARCH, blocked));
+
+        CountDownLatch lookup = new CountDownLatch(1);
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.LOOKUP, lookup::countDown));
+        assertTrue("Запрос по id ждет медленные поиски", lookup.await(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        boolean accepted = false;
+        while (!accepted && System.currentTimeMillis() < deadline) {
+            accepted = bulkheads.submit(ShipBulkheads.Endpoint.SEARCH, () -> { });
+            Thread.sleep(1);
+        }
+        assertTrue("Endpoint не освобождается после завершения запросов", accepted);
+    }
+
+    @Test
+    public void fullExecutorIsRejected() {
+        ShipBulkheads bulkheads = bulkheads("");
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // one write thread and one queued write
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.CREATE, blocked));
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.UPDATE, blocked));
+        assertFalse("Переполненный пул записи принимает запросы",
+                bulkheads.submit(ShipBulkheads.Endpoint.DELETE, blocked));
+        release.countDown();
+    }
+
+    @Test
+    public void runningSearchesAndImportsLeaveLookupsAndWritesFree() throws Exception {
+        ShipBulkheads bulkheads = bulkheads("");
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // more searches than read threads, and a running and a queued import
+        for (int i = 0; i < 8; i++) {
+            assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.SEARCH, blocked));
+        }
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.BULK, blocked));
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.BULK, blocked));
+
+        CountDownLatch served = new CountDownLatch(2);
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.LOOKUP, served::countDown));
+        assertTrue(bulkheads.submit(ShipBulkheads.Endpoint.CREATE, served::countDown));
+        assertTrue("Запрос по id или создание корабля ждет поиски и импорт", served.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    private ShipBulkheads bulkheads(String limits) {
+        return new ShipBulkheads(lookupExecutor, readExecutor, writeExecutor, bulkExecutor, true, 30_000, limits);
+    }
+
+    private static ExecutorService executor(int threads, int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+}
@@ -1,11 +1,20 @@
 package com.space.controller.utils;
 
+import com.space.config.ConnectionPoolMetrics;
+import com.space.config.PooledDataSources;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -16,12 +25,21 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableTransactionManagement
-@ComponentScan("com.space.service")
+@ComponentScan({"com.space.service", "com.space.repository"})
 @EnableJpaRepositories(basePackages = "com.space.repository")
+@PropertySource("classpath:test.properties")
 public class TestDataSourceConfig {
+    @Autowired
+    private Environment environment;
 
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
@@ -37,15 +55,66 @@ public class TestDataSourceConfig {
     }
 
     @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    @Bean(destroyMethod = "close")
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/test?serverTimezone=UTC");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+        HikariConfig config = PooledDataSources.config(environment, "test");
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return new HikariDataSource(config);
+    }
+
+
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipQueryExecutor(@Value("${ship.query.threads:2}") int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipImportExecutor() {
+        return Executors.newCachedThreadPool();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipRatingExecutor() {
+        return Executors.newSingleThreadExecutor();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipLookupExecutor(@Value("${ship.bulkhead.lookup.threads:2}") int threads,
+                                              @Value("${ship.bulkhead.lookup.queue:128}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipReadExecutor(@Value("${ship.bulkhead.read.threads:3}") int threads,
+                                            @Value("${ship.bulkhead.read.queue:64}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipWriteExecutor(@Value("${ship.bulkhead.write.threads:1}") int threads,
+                                             @Value("${ship.bulkhead.write.queue:64}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shipBulkExecutor(@Value("${ship.bulkhead.bulk.threads:1}") int threads,
+                                            @Value("${ship.bulkhead.bulk.queue:2}") int queue) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService shipStatsScheduler() {
+        return Executors.newSingleThreadScheduledExecutor();
+    }
 
     @Bean
     public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
@@ -55,6 +124,11 @@ public class TestDataSourceConfig {
         return transactionManager;
     }
 
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
     @Bean
     public PersistenceExceptionTranslationPostProcessor exceptionTranslation() {
         return new PersistenceExceptionTranslationPostProcessor();
@@ -64,6 +138,7 @@ public class TestDataSourceConfig {
         Properties properties = new Properties();
         properties.setProperty("hibernate.hbm2ddl.auto", "none");
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
 
         return properties;
     }
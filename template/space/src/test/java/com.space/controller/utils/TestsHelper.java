@@ -115,6 +115,16 @@ public class TestsHelper {
                     "\"crewSize\": 14" +
                     "}";
 
+    public static final String NO_SHIP_TYPE_JSON =
+            "{" +
+                    "\"name\": \"123456789\"," +
+                    "\"planet\":\"Earth\"," +
+                    "\"prodDate\" : 32998274577071," +
+                    "\"isUsed\":false," +
+                    "\"speed\":0.8," +
+                    "\"crewSize\": 14" +
+                    "}";
+
     public static final String IS_USED_TRUE_JSON =
             "{" +
                     "\"name\": \"123456789\"," +
@@ -0,0 +1,80 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipListCacheStats;
+import com.space.model.ShipType;
+import com.space.model.ShipView;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ShipListCacheTest {
+    private static final List<ShipView> PAGE = Collections.emptyList();
+
+    @Test
+    public void writeEvictsOnlyPagesItCouldChange() {
+        ShipListCache cache = new ShipListCache(16);
+        ShipFilter merchants = filter(ShipType.MERCHANT, null);
+        ShipFilter fast = filter(null, 0.9);
+        ShipFilter mars = new ShipFilter();
+        mars.setPlanet("mars");
+        cache.put(merchants, ShipOrder.ID, 0, 3, PAGE, cache.getGeneration());
+        cache.put(fast, ShipOrder.ID, 0, 3, PAGE, cache.getGeneration());
+        cache.put(mars, ShipOrder.ID, 0, 3, PAGE, cache.getGeneration());
+
+        Ship before = ship(ShipType.MERCHANT, "Jupiter", 0.5);
+        Ship after = ship(ShipType.MILITARY, "Jupiter", 0.95);
+        cache.invalidate(before, after);
+
+        assertNull("Страница, которой соответствовал корабль до изменения, не удалена",
+                cache.get(merchants, ShipOrder.ID, 0, 3));
+        assertNull("Страница, которой корабль соответствует после изменения, не удалена",
+                cache.get(fast, ShipOrder.ID, 0, 3));
+        assertNotNull("Удалена страница, на которую изменение не влияет", cache.get(mars, ShipOrder.ID, 0, 3));
+        assertEquals(2, cache.snapshot().getInvalidations());
+    }
+
+    @Test
+    public void pageReadDuringWriteIsNotStored() {
+        ShipListCache cache = new ShipListCache(16);
+        long generation = cache.getGeneration();
+        cache.invalidate(null, ship(ShipType.TRANSPORT, "Earth", 0.1));
+        cache.put(new ShipFilter(), ShipOrder.ID, 0, 3, PAGE, generation);
+
+        assertNull(cache.get(new ShipFilter(), ShipOrder.ID, 0, 3));
+    }
+
+    @Test
+    public void countersTrackHitsMissesAndEvictions() {
+        ShipListCache cache = new ShipListCache(2);
+        for (int page = 0; page < 3; page++) {
+            cache.put(new ShipFilter(), ShipOrder.ID, page, 3, PAGE, cache.getGeneration());
+        }
+        cache.get(new ShipFilter(), ShipOrder.ID, 0, 3);
+        cache.get(new ShipFilter(), ShipOrder.ID, 2, 3);
+
+        ShipListCacheStats stats = cache.snapshot();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+    }
+
+    private static ShipFilter filter(ShipType shipType, Double minSpeed) {
+        ShipFilter filter = new ShipFilter();
+        filter.setShipType(shipType);
+        filter.setMinSpeed(minSpeed);
+        return filter;
+    }
+
+    private static Ship ship(ShipType shipType, String planet, double speed) {
+        return new Ship(1L, "Test", planet, shipType, new Date(32377442400000L), false, speed, 100, 1.0, 0);
+    }
+}
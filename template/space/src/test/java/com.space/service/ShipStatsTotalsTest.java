@@ -0,0 +1,65 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipStats;
+import com.space.model.ShipType;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ShipStatsTotalsTest {
+
+    @Test
+    public void addAndRemoveKeepCountsAndSums() {
+        ShipStatsTotals totals = new ShipStatsTotals(0);
+        Ship slow = ship(ShipType.MERCHANT, "Mars", true, 0.1, 10, 1.0);
+        Ship middle = ship(ShipType.MERCHANT, "Earth", false, 0.5, 20, 2.0);
+        Ship fast = ship(ShipType.MILITARY, "Mars", false, 0.9, 30, 3.0);
+        totals.add(slow);
+        totals.add(middle);
+        totals.add(fast);
+
+        assertTrue("Удаление корабля без крайних значений помечает статистику устаревшей", totals.remove(middle));
+        ShipStats stats = totals.snapshot();
+        assertEquals(2, stats.getTotal());
+        assertEquals(Long.valueOf(1), stats.getShipTypes().get(ShipType.MERCHANT));
+        assertEquals(Long.valueOf(2), stats.getPlanets().get("Mars"));
+        assertNull("Планета без кораблей остается в статистике", stats.getPlanets().get("Earth"));
+        assertEquals(1, stats.getUsed());
+        assertEquals(1, stats.getNotUsed());
+        assertEquals(0.1, stats.getSpeed().getMin(), 0);
+        assertEquals(0.9, stats.getSpeed().getMax(), 0);
+        assertEquals(20, stats.getCrewSize().getAvg(), 1e-9);
+    }
+
+    @Test
+    public void removingAnExtremeIsReported() {
+        ShipStatsTotals totals = new ShipStatsTotals(0);
+        Ship slow = ship(ShipType.MERCHANT, "Mars", true, 0.1, 10, 1.0);
+        totals.add(slow);
+        totals.add(ship(ShipType.TRANSPORT, "Venus", true, 0.5, 20, 2.0));
+
+        assertFalse("Удаление корабля с минимальной скоростью не помечает статистику устаревшей", totals.remove(slow));
+    }
+
+    @Test
+    public void snapshotIsRebuiltOnlyAfterChanges() {
+        ShipStatsTotals totals = new ShipStatsTotals(0);
+        ShipStats empty = totals.snapshot();
+        assertNull(empty.getRating().getMin());
+        assertSame(empty, totals.snapshot());
+
+        totals.add(ship(ShipType.MERCHANT, "Mars", true, 0.1, 10, 1.0));
+        assertEquals(1, totals.snapshot().getTotal());
+    }
+
+    private static Ship ship(ShipType shipType, String planet, boolean isUsed, double speed, int crewSize, double rating) {
+        return new Ship(null, "ship", planet, shipType, new Date(32998274577071L), isUsed, speed, crewSize, rating, 0);
+    }
+}
@@ -0,0 +1,92 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShipValidatorTest {
+
+    @Test
+    public void prodDateBoundsMatchCalendarYears() {
+        for (int year : new int[]{2800, 3020}) {
+            long start = ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault()).toInstant().toEpochMilli();
+            for (long millis = start - 2; millis <= start + 2; millis++) {
+                assertEquals(referenceYearAllowed(millis), ShipValidator.checkProdDate(new Date(millis)));
+                assertEquals(referenceYear(millis), ShipValidator.year(millis));
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long millis = 20_000_000_000_000L + (long) (random.nextDouble() * 15_000_000_000_000L);
+            assertEquals(referenceYearAllowed(millis), ShipValidator.checkProdDate(millis));
+            assertEquals(referenceYear(millis), ShipValidator.year(millis));
+        }
+    }
+
+    @Test
+    public void ratingMatchesLocalDateFormula() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            Ship ship = randomShip(random);
+            LocalDate date = ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            double expected = 80 * ship.getSpeed() * (ship.isUsed() ? 0.5 : 1) / (3019 - date.getYear() + 1);
+            assertEquals(Math.round(expected * 100.0) / 100.0, ShipValidator.getRating(ship), 0);
+        }
+    }
+
+    @Test
+    public void validationAndRatingDoNotAllocate() {
+        Ship[] ships = new Ship[1024];
+        Random random = new Random(42);
+        for (int i = 0; i < ships.length; i++) {
+            ships[i] = randomShip(random);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double sum = validateAndRate(ships, 200_000);
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        sum += validateAndRate(ships, 200_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue(sum > 0);
+        assertTrue("Проверка и расчет рейтинга выделяют память: " + allocated + " байт", allocated < 1024);
+    }
+
+    private static double validateAndRate(Ship[] ships, int calls) {
+        double sum = 0;
+        for (int i = 0; i < calls; i++) {
+            Ship ship = ships[i & (ships.length - 1)];
+            if (ShipValidator.isParamTrue(ship) && ShipValidator.checkProdDate(ship.getProdDate())) {
+                sum += ShipValidator.getRating(ship);
+            }
+        }
+        return sum;
+    }
+
+    private static boolean referenceYearAllowed(long millis) {
+        int year = referenceYear(millis);
+        return year >= 2800 && year <= 3019;
+    }
+
+    private static int referenceYear(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).getYear();
+    }
+
+    private static Ship randomShip(Random random) {
+        long prodDate = ZonedDateTime.of(2800 + random.nextInt(220), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), 0, 0, 0, ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Ship(null, "Ship", "Mars", ShipType.MERCHANT, new Date(prodDate), random.nextBoolean(),
+                (1 + random.nextInt(99)) / 100.0, 1 + random.nextInt(9999), null, 0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.space.service.store;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RoaringBitmapTest {
+
+    @Test
+    public void andOrMatchBitSetAcrossContainerTypes() {
+        Random random = new Random(7);
+        RoaringBitmap sparse = new RoaringBitmap();
+        RoaringBitmap dense = new RoaringBitmap();
+        BitSet sparseBits = new BitSet();
+        BitSet denseBits = new BitSet();
+        for (int i = 0; i < 3000; i++) {
+            int value = random.nextInt(300_000);
+            sparse.add(value);
+            sparseBits.set(value);
+        }
+        for (int value = 0; value < 300_000; value++) {
+            if (random.nextInt(3) == 0) {
+                dense.add(value);
+                denseBits.set(value);
+            }
+        }
+
+        BitSet and = (BitSet) sparseBits.clone();
+        and.and(denseBits);
+        BitSet or = (BitSet) sparseBits.clone();
+        or.or(denseBits);
+
+        assertArrayEquals(and.stream().toArray(), sparse.and(dense).toArray());
+        assertArrayEquals(and.stream().toArray(), dense.and(sparse).toArray());
+        assertArrayEquals(or.stream().toArray(), sparse.or(dense).toArray());
+        assertEquals(denseBits.cardinality(), dense.and(dense).cardinality());
+        assertEquals(denseBits.cardinality(), dense.cardinality());
+    }
+
+    @Test
+    public void removeShrinksBitmapContainerBackToArray() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value = 70_000; value < 80_000; value++) {
+            bitmap.add(value);
+        }
+        for (int value = 70_000; value < 79_990; value++) {
+            bitmap.remove(value);
+        }
+
+        assertEquals(10, bitmap.cardinality());
+        assertTrue(bitmap.contains(79_995));
+        assertFalse(bitmap.contains(75_000));
+
+        for (int value = 79_990; value < 80_000; value++) {
+            bitmap.remove(value);
+        }
+        assertEquals(0, bitmap.toArray().length);
+    }
+}
@@ -0,0 +1,251 @@
+package com.space.service.store;
+
+import com.space.controller.ShipOrder;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.model.ShipFacets;
+import com.space.model.ShipHistograms;
+import com.space.model.ShipType;
+import com.space.model.ShipView;
+import com.space.service.ShipCursor;
+import com.space.service.ShipFacetCounter;
+import com.space.service.ShipFilter;
+import com.space.service.ShipHistogramCounter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShipColumnStoreTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ShipColumnStore store;
+
+    @Before
+    public void setup() {
+        store = new ShipColumnStore(true, null);
+        for (ShipInfoTest info : testsHelper.getAllShips()) {
+            store.upsert(toShip(info));
+        }
+    }
+
+    @Test
+    public void countWithoutFiltersReturnsAllShips() {
+        assertEquals(testsHelper.getAllShips().size(), store.count(new ShipFilter()));
+    }
+
+    @Test
+    public void countAndListWithRangeFilters() {
+        ShipFilter filter = new ShipFilter();
+        filter.setMinSpeed(0.3);
+        filter.setMaxCrewSize(3000);
+        filter.setMinRating(1.0);
+        filter.setIsUsed(false);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByMinSpeed(0.3,
+                testsHelper.getShipInfosByMaxCrewSize(3000,
+                        testsHelper.getShipInfosByMinRating(1.0,
+                                testsHelper.getShipInfosByIsUsed(false, testsHelper.getAllShips()))));
+
+        assertEquals(expected.size(), store.count(filter));
+        assertEquals(ids(testsHelper.getShipInfosByOrder(ShipOrder.RATING, expected)),
+                ids(store.list(filter, ShipOrder.RATING, null, 0, 100)));
+    }
+
+    @Test
+    public void listPagesByOrderAndCursor() {
+        ShipFilter filter = new ShipFilter();
+        filter.setShipType(ShipType.TRANSPORT);
+        filter.setAfter(32377442400000L);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByAfter(32377442400000L,
+                testsHelper.getShipInfosByShipType(ShipType.TRANSPORT, testsHelper.getAllShips()));
+        expected.sort((o1, o2) -> Long.compare(o1.prodDate, o2.prodDate));
+
+        assertEquals(ids(testsHelper.getShipInfosByPage(1, 3, expected)),
+                ids(store.list(filter, ShipOrder.DATE, null, 3, 3)));
+
+        List<ShipView> firstPage = store.list(filter, ShipOrder.DATE, null, 0, 3);
+        ShipCursor cursor = ShipCursor.after(ShipOrder.DATE, firstPage.get(2));
+        assertEquals(ids(testsHelper.getShipInfosByPage(1, 3, expected)),
+                ids(store.list(filter, ShipOrder.DATE, cursor, 0, 3)));
+    }
+
+    @Test
+    public void countFromBitmapsMatchesFilters() {
+        ShipFilter filter = new ShipFilter();
+        filter.setShipType(ShipType.MILITARY);
+        filter.setIsUsed(true);
+        filter.setPlanet("u");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPlanet("u",
+                testsHelper.getShipInfosByIsUsed(true,
+                        testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips())));
+
+        assertEquals(expected.size(), store.count(filter));
+        assertEquals(ids(testsHelper.getShipInfosByOrder(ShipOrder.ID, expected)),
+                ids(store.list(filter, ShipOrder.ID, null, 0, 100)));
+
+        filter.setMaxSpeed(0.5);
+        assertEquals(testsHelper.getShipInfosByMaxSpeed(0.5, expected).size(), store.count(filter));
+    }
+
+    @Test
+    public void facetsCountMatchesInOnePass() {
+        ShipFilter filter = new ShipFilter();
+        filter.setMinSpeed(0.5);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByMinSpeed(0.5, testsHelper.getAllShips());
+        ShipFacetCounter counter = store.facets(filter);
+        ShipFacets facets = counter.toFacets(3);
+
+        assertEquals(expected.size(), counter.getTotal());
+        for (ShipType shipType : ShipType.values()) {
+            assertEquals(Long.valueOf(testsHelper.getShipInfosByShipType(shipType, expected).size()),
+                    facets.getShipTypes().get(shipType));
+        }
+        assertEquals(testsHelper.getShipInfosByIsUsed(true, expected).size(), facets.getUsed());
+        assertEquals(testsHelper.getShipInfosByIsUsed(false, expected).size(), facets.getNotUsed());
+        assertEquals(3, facets.getPlanets().size());
+        long previous = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> planet : facets.getPlanets().entrySet()) {
+            assertEquals(expected.stream().filter(ship -> ship.planet.equals(planet.getKey())).count(),
+                    (long) planet.getValue());
+            assertTrue("Планеты в фасетах не упорядочены по убыванию количества", planet.getValue() <= previous);
+            previous = planet.getValue();
+        }
+        assertEquals(testsHelper.getAllShips().size(), store.facets(new ShipFilter()).getTotal());
+    }
+
+    @Test
+    public void histogramsBucketMatchesInOnePass() {
+        ShipFilter filter = new ShipFilter();
+        filter.setIsUsed(false);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByIsUsed(false, testsHelper.getAllShips());
+        ShipHistogramCounter counter = new ShipHistogramCounter(0.25, 1, 1000, 10);
+        store.histograms(filter, counter);
+        ShipHistograms histograms = counter.toHistograms();
+
+        assertBuckets(histograms.getSpeed(), expected.stream().mapToDouble(ship -> ship.speed).toArray());
+        assertBuckets(histograms.getRating(), expected.stream().mapToDouble(ship -> ship.rating).toArray());
+        assertBuckets(histograms.getCrewSize(), expected.stream().mapToDouble(ship -> ship.crewSize).toArray());
+        assertBuckets(histograms.getYear(), expected.stream().mapToDouble(ship -> year(ship.prodDate)).toArray());
+        assertEquals(2800, histograms.getYear().getFrom(), 0);
+
+        ShipHistogramCounter all = new ShipHistogramCounter(0.25, 1, 1000, 10);
+        store.histograms(new ShipFilter(), all);
+        assertEquals(testsHelper.getAllShips().size(), LongStream.of(all.toHistograms().getSpeed().getCounts()).sum());
+    }
+
+    @Test
+    public void countFromSingleRangeIndex() {
+        ShipFilter filter = new ShipFilter();
+        filter.setMinCrewSize(1000);
+        filter.setMaxCrewSize(3000);
+        assertEquals(testsHelper.getShipInfosByMinCrewSize(1000,
+                testsHelper.getShipInfosByMaxCrewSize(3000, testsHelper.getAllShips())).size(), store.count(filter));
+    }
+
+    @Test
+    public void orderIndexWalkAgreesWithSortedCandidates() {
+        ShipFilter filter = new ShipFilter();
+        filter.setMaxRating(2.0);
+        for (ShipOrder order : ShipOrder.values()) {
+            List<ShipView> sorted = store.list(filter, order, null, 0, 100);
+            for (int offset = 0; offset < sorted.size(); offset++) {
+                assertEquals(sorted.get(offset).getId(), store.list(filter, order, null, offset, 1).get(0).getId());
+            }
+            ShipCursor cursor = ShipCursor.after(order, sorted.get(4));
+            assertEquals(ids(sorted.subList(5, 7)), ids(store.list(filter, order, cursor, 0, 2)));
+        }
+    }
+
+    @Test
+    public void nameAndPlanetMatchIgnoringCase() {
+        ShipFilter filter = new ShipFilter();
+        filter.setName("orion");
+        assertEquals(1, store.count(filter));
+
+        filter = new ShipFilter();
+        filter.setPlanet("ars");
+        assertEquals(testsHelper.getShipInfosByPlanet("ars", testsHelper.getAllShips()).size(), store.count(filter));
+    }
+
+    @Test
+    public void renamedShipIsFoundByNewName() {
+        ShipFilter filter = new ShipFilter();
+        filter.setName("orion");
+        Ship ship = toShip(testsHelper.getShipInfosById(store.list(filter, ShipOrder.ID, null, 0, 1).get(0).getId()));
+
+        ship.setName("Rename Test");
+        store.upsert(ship);
+        assertEquals(0, store.count(filter));
+        filter.setName("AME T");
+        assertEquals((long) ship.getId(), store.list(filter, ShipOrder.ID, null, 0, 1).get(0).getId());
+    }
+
+    @Test
+    public void updatesAndRemovalsAreVisible() {
+        ShipFilter merchants = new ShipFilter();
+        merchants.setShipType(ShipType.MERCHANT);
+        int merchantCount = store.count(merchants);
+
+        Ship ship = toShip(testsHelper.getShipInfosById(4));
+        ship.setShipType(ShipType.MERCHANT);
+        store.upsert(ship);
+        assertEquals(merchantCount + 1, store.count(merchants));
+
+        store.remove(4L);
+        store.remove(1L);
+        assertEquals(merchantCount - 1, store.count(merchants));
+        assertEquals(testsHelper.getAllShips().size() - 2, store.count(new ShipFilter()));
+
+        ship.setId(41L);
+        store.upsert(ship);
+        assertEquals(merchantCount, store.count(merchants));
+        assertEquals(41L, store.list(merchants, ShipOrder.ID, null, merchantCount - 1, 1).get(0).getId());
+    }
+
+    private static void assertBuckets(ShipHistograms.Histogram histogram, double[] values) {
+        assertEquals(values.length, LongStream.of(histogram.getCounts()).sum());
+        for (int i = 0; i < histogram.getCounts().length; i++) {
+            double from = histogram.getFrom() + i * histogram.getWidth();
+            assertEquals(DoubleStream.of(values).filter(value -> value >= from && value < from + histogram.getWidth()).count(),
+                    histogram.getCounts()[i]);
+        }
+    }
+
+    private static int year(long prodDate) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(prodDate);
+        return calendar.get(Calendar.YEAR);
+    }
+
+    private static Ship toShip(ShipInfoTest info) {
+        Ship ship = new Ship();
+        ship.setId(info.id);
+        ship.setName(info.name);
+        ship.setPlanet(info.planet);
+        ship.setShipType(info.shipType);
+        ship.setProdDate(new Date(info.prodDate));
+        ship.setUsed(info.isUsed);
+        ship.setSpeed(info.speed);
+        ship.setCrewSize(info.crewSize);
+        ship.setRating(info.rating);
+        return ship;
+    }
+
+    private static List<Long> ids(List<?> ships) {
+        List<Long> ids = new ArrayList<>();
+        for (Object ship : ships) {
+            ids.add(ship instanceof ShipView ? ((ShipView) ship).getId() : ((ShipInfoTest) ship).id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,34 @@
+package com.space.service.store;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void candidatesContainEverySlotWithAllTrigrams() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(0, "orion iii");
+        index.add(1, "orbit jet");
+        index.add(2, "daedalus");
+        index.add(3, "orionis");
+
+        assertArrayEquals("Не найдены корабли, содержащие подстроку", new int[]{0, 3}, index.candidates("orio"));
+        assertArrayEquals("Найдены лишние корабли", new int[0], index.candidates("xyz"));
+        assertNull("Короткий шаблон должен требовать полного просмотра", index.candidates("or"));
+    }
+
+    @Test
+    public void removedSlotsAreNotReturned() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(5, "eagle transporter");
+        index.add(7, "eagle");
+        index.remove(5, "eagle transporter");
+        index.add(5, "falcon");
+
+        assertArrayEquals("Удаленный корабль остался в индексе", new int[]{7}, index.candidates("eagle"));
+        assertArrayEquals("Переименованный корабль не найден", new int[]{5}, index.candidates("alc"));
+    }
+}
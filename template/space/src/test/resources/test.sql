@@ -13,6 +13,7 @@ CREATE TABLE ship
     speed    DOUBLE      NULL,
     crewSize INT(4)      NULL,
     rating   DOUBLE      NULL,
+    version  BIGINT(20)  NOT NULL DEFAULT 0,
     PRIMARY KEY (id)
 )
     ENGINE = InnoDB
@@ -58,4 +59,15 @@ values ('Orion III', 'Mars', 'MERCHANT', '2995-01-01', true, 0.82, 617, 1.31)
      , ('Nemesis', 'Neptune', 'MILITARY', '2999-01-01', true, 0.13, 1390, 0.25)
      , ('Nostromo', 'Saturn', 'MERCHANT', '2991-01-01', true, 0.31, 1967, 0.43)
      , ('Tardis', 'Jupiter', 'MERCHANT', '3016-01-01', false, 0.86, 4871, 17.20)
-     , ('Star Destroyer', 'Mercury', 'MILITARY', '3017-01-01', false, 0.92, 4880, 24.53);
\ No newline at end of file
+     , ('Star Destroyer', 'Mercury', 'MILITARY', '3017-01-01', false, 0.92, 4880, 24.53);
+
+CREATE TABLE IF NOT EXISTS ship_modification
+(
+    id            INT        NOT NULL,
+    modifications BIGINT(20) NOT NULL,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB;
+
+INSERT IGNORE INTO ship_modification (id, modifications) VALUES (1, 0);
+UPDATE ship_modification SET modifications = modifications + 1 WHERE id = 1;
\ No newline at end of file